@@ -1,5 +1,6 @@
 package experiments;
 
+import topology.CoreDecomposition;
 import topology.Topology;
 import topology.TopologyGenerator;
 
@@ -30,5 +31,11 @@ public class BarabasiAlbertExp {
         }
 
         System.out.println("Non core hubs: " + count);
+
+        CoreDecomposition cores = new CoreDecomposition(tp.freeze());
+        int[] shells = cores.shellSizes();
+        System.out.println("Degeneracy: " + cores.degeneracy());
+        for (int k = 1; k < shells.length; k++)
+            System.out.println("Shell: " + k + " nodes: " + shells[k]);
     }
 }
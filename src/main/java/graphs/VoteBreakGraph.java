@@ -49,8 +49,7 @@ public class VoteBreakGraph extends VoteGraph {
         Integer v1 = tmp.get(0);
         Integer v2 = tmp.get(1);
 
-        topology.get(v1).remove(v2);
-        topology.get(v2).remove(v1);
+        topology.removeEdge(v1, v2);
         diffEdges.remove(edge);
     }
 
@@ -0,0 +1,258 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Approximate betweenness centrality by shortest path sampling (Riondato-Kornaropoulos)
+ * Every sample is a uniformly chosen shortest path between a random pair of nodes,
+ * each inner node of the path gets 1/r. With
+ * r = 0.5/eps^2 * (floor(log2(VD-2)) + 1 + ln(1/delta)) samples, where VD is vertex diameter,
+ * all normalized estimates are within eps of exact values with probability 1-delta.
+ *
+ * Sampling runs in rounds, after every round the top-k ranking is compared with the previous one,
+ * run stops when it hasn't changed for several rounds or time budget is over.
+ * The guarantee holds only if all r samples are drawn, samplesDrawn() tells how many were.
+ *
+ * Scores are in the same scale as Betweenness: not normalized, unordered pairs counted once.
+ */
+public final class ApproxBetweenness {
+
+    private final CompactTopology graph;
+    private double epsilon = 0.01;
+    private double delta = 0.1;
+    private long timeBudgetMillis = Long.MAX_VALUE;
+    private int topK = 0;
+    private int stableRounds = 3;
+    private int rounds = 20;
+    private int parallelism = Workers.defaultParallelism();
+    private SplittableRandom random = new SplittableRandom();
+
+    private long samplesDrawn;
+    private long samplesRequired;
+
+    public ApproxBetweenness(CompactTopology graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * @param epsilon - max absolute error of normalized betweenness
+     * @param delta - probability that the error is larger
+     */
+    public ApproxBetweenness accuracy(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1)
+            throw new RuntimeException("epsilon and delta should be in (0, 1)");
+        this.epsilon = epsilon;
+        this.delta = delta;
+        return this;
+    }
+
+    public ApproxBetweenness timeBudget(long millis) {
+        this.timeBudgetMillis = millis;
+        return this;
+    }
+
+    /**
+     * Stop when set of k nodes with highest scores is the same for stableRounds rounds
+     */
+    public ApproxBetweenness stopWhenTopStable(int k, int stableRounds) {
+        this.topK = k;
+        this.stableRounds = Math.max(1, stableRounds);
+        return this;
+    }
+
+    public ApproxBetweenness parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * The same seed and parallelism give the same scores, unless the time budget cuts the run
+     */
+    public ApproxBetweenness seed(long seed) {
+        this.random = new SplittableRandom(seed);
+        return this;
+    }
+
+    public long samplesDrawn() {
+        return samplesDrawn;
+    }
+
+    public long samplesRequired() {
+        return samplesRequired;
+    }
+
+    /**
+     * @return estimated betweenness of every dense index
+     */
+    public double[] run() {
+        int n = graph.nodesCount();
+        samplesDrawn = 0;
+        samplesRequired = sampleSize();
+        if (n < 3)
+            return new double[n];
+
+        long start = System.nanoTime();
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis); // saturates, no overflow
+        int[][] hits = new int[parallelism][n];
+        Sampler[] samplers = new Sampler[parallelism];
+        for (int i = 0; i < parallelism; i++)
+            samplers[i] = new Sampler(random.split(), hits[i]);
+
+        long perRound = Math.max(1, (samplesRequired + rounds - 1) / rounds);
+        Set<Integer> lastTop = null;
+        int stable = 0;
+        while (samplesDrawn < samplesRequired && System.nanoTime() - start < budgetNanos) {
+            long round = Math.min(samplesRequired - samplesDrawn, perRound);
+            List<Long> drawn = Workers.run(parallelism, worker -> {
+                // fixed quota per worker, so every split stream draws the same samples in any schedule
+                long quota = round / parallelism + (worker < round % parallelism ? 1 : 0);
+                long count = 0;
+                while (count < quota && System.nanoTime() - start < budgetNanos) {
+                    samplers[worker].sample();
+                    count++;
+                }
+                return count;
+            });
+            samplesDrawn += drawn.stream().mapToLong(Long::longValue).sum();
+
+            if (topK > 0) {
+                Set<Integer> top = top(merge(hits), topK);
+                stable = top.equals(lastTop) ? stable + 1 : 0;
+                lastTop = top;
+                if (stable >= stableRounds)
+                    break;
+            }
+        }
+
+        double[] scores = new double[n];
+        if (samplesDrawn == 0)
+            return scores;
+        int[] total = merge(hits);
+        double scale = (double) n * (n - 1) / 2 / samplesDrawn;
+        for (int v = 0; v < n; v++)
+            scores[v] = total[v] * scale;
+
+        return scores;
+    }
+
+    private static int[] merge(int[][] hits) {
+        int[] total = hits[0].clone();
+        for (int i = 1; i < hits.length; i++) {
+            for (int v = 0; v < total.length; v++)
+                total[v] += hits[i][v];
+        }
+        return total;
+    }
+
+    private static Set<Integer> top(int[] scores, int k) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>((a, b) ->
+                scores[a] != scores[b] ? Integer.compare(scores[a], scores[b]) : Integer.compare(b, a));
+        for (int v = 0; v < scores.length; v++) {
+            heap.add(v);
+            if (heap.size() > k)
+                heap.poll();
+        }
+        return new HashSet<>(heap);
+    }
+
+    /**
+     * r from the class doc, vertex diameter is bounded by 2*eccentricity+1 of any node in component
+     */
+    long sampleSize() {
+        int n = graph.nodesCount();
+        int[] dist = graph.emptyDist();
+        int[] queue = new int[n];
+        NeighborCursor cursor = graph.cursor();
+        int vertexDiameter = 1;
+        for (int v = 0; v < n; v++) {
+            if (dist[v] >= 0)
+                continue;
+            int size = graph.bfs(v, dist, queue, cursor);
+            vertexDiameter = Math.max(vertexDiameter, 2 * dist[queue[size - 1]] + 1);
+        }
+
+        int log = 31 - Integer.numberOfLeadingZeros(Math.max(1, vertexDiameter - 2));
+        return (long) Math.ceil(0.5 / (epsilon * epsilon) * (log + 1 + Math.log(1 / delta)));
+    }
+
+    /**
+     * Per worker workspace: BFS from u which stops at the level of v, then random walk back
+     * from v where predecessor z of w is chosen with probability sigma(z)/sigma(w)
+     */
+    private final class Sampler {
+        final SplittableRandom random;
+        final int[] hits;
+        final int[] dist;
+        final double[] sigma;
+        final int[] queue;
+
+        Sampler(SplittableRandom random, int[] hits) {
+            int n = graph.nodesCount();
+            this.random = random;
+            this.hits = hits;
+            dist = new int[n];
+            Arrays.fill(dist, -1);
+            sigma = new double[n];
+            queue = new int[n];
+        }
+
+        void sample() {
+            int n = graph.nodesCount();
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            int u = random.nextInt(n);
+            int v = random.nextInt(n - 1);
+            if (v >= u)
+                v++;
+
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = u;
+            dist[u] = 0;
+            sigma[u] = 1;
+            while (head < tail) {
+                int w = queue[head++];
+                if (dist[v] >= 0 && dist[w] >= dist[v])
+                    break; // all paths to v are counted
+                for (int i = offsets[w]; i < offsets[w + 1]; i++) {
+                    int z = neighbors[i];
+                    if (dist[z] < 0) {
+                        dist[z] = dist[w] + 1;
+                        sigma[z] = 0;
+                        queue[tail++] = z;
+                    }
+                    if (dist[z] == dist[w] + 1)
+                        sigma[z] += sigma[w];
+                }
+            }
+
+            if (dist[v] > 1) {
+                int w = v;
+                while (dist[w] > 1) {
+                    double probe = random.nextDouble() * sigma[w];
+                    int prev = -1;
+                    for (int i = offsets[w]; i < offsets[w + 1]; i++) {
+                        int z = neighbors[i];
+                        if (dist[z] == dist[w] - 1) {
+                            prev = z;
+                            probe -= sigma[z];
+                            if (probe < 0)
+                                break;
+                        }
+                    }
+                    hits[prev]++;
+                    w = prev;
+                }
+            }
+
+            for (int i = 0; i < tail; i++)
+                dist[queue[i]] = -1;
+        }
+    }
+}
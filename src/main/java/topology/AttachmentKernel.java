@@ -0,0 +1,33 @@
+package topology;
+
+/**
+ * Attractiveness f of a node for nonlinear preferential attachment, see NonlinearAttachment
+ * A node is chosen as neighbour with probability proportional to f(node, degree)
+ */
+@FunctionalInterface
+public interface AttachmentKernel {
+
+    double weight(int node, int degree);
+
+    /**
+     * f = deg^alpha: alpha = 1 - Barabasi-Albert, alpha > 1 - condensation on a few hubs,
+     * alpha < 1 - stretched exponential degrees. Nodes of degree 0 have weight 0 for alpha > 0
+     */
+    static AttachmentKernel power(double alpha) {
+        return (node, degree) -> alpha == 1 ? degree : Math.pow(degree, alpha);
+    }
+
+    /**
+     * f = deg + shift, shift > -minimal degree: tail exponent 3 + shift/m for m edges per node
+     */
+    static AttachmentKernel shifted(double shift) {
+        return (node, degree) -> Math.max(0, degree + shift);
+    }
+
+    /**
+     * f = fitness[node] * deg (Bianconi-Barabasi): younger nodes with larger fitness overtake older ones
+     */
+    static AttachmentKernel fitness(double[] fitness) {
+        return (node, degree) -> fitness[node] * degree;
+    }
+}
@@ -0,0 +1,142 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exact betweenness centrality by Brandes' algorithm
+ * BFS from every source, then dependencies are accumulated in reverse BFS order.
+ * Predecessors are not stored: they are neighbours one level closer to the source.
+ * Sources are shared between workers, each worker has its own workspace and accumulator,
+ * accumulators are summed at the end.
+ *
+ * Scores are not normalized, each unordered pair of nodes is counted once.
+ * Complexity - O(N*M/parallelism)
+ */
+public final class Betweenness {
+
+    private final CompactTopology graph;
+    private final int parallelism;
+
+    public Betweenness(CompactTopology graph) {
+        this(graph, Workers.defaultParallelism());
+    }
+
+    public Betweenness(CompactTopology graph, int parallelism) {
+        this.graph = graph;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @return betweenness of every dense index
+     */
+    public double[] nodes() {
+        return run(false);
+    }
+
+    /**
+     * @return betweenness of every CSR position, edge v-u has the same score at both its positions
+     */
+    public double[] edges() {
+        return run(true);
+    }
+
+    private double[] run(boolean edges) {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        AtomicInteger nextSource = new AtomicInteger();
+
+        List<double[]> partial = Workers.run(parallelism, worker -> {
+            double[] acc = new double[edges ? graph.degreeSum() : n];
+            int[] dist = new int[n];
+            Arrays.fill(dist, -1);
+            double[] sigma = new double[n];
+            double[] delta = new double[n];
+            int[] order = new int[n];
+
+            for (int s = nextSource.getAndIncrement(); s < n; s = nextSource.getAndIncrement())
+                accumulate(s, dist, sigma, delta, order, acc, edges);
+
+            return acc;
+        });
+
+        double[] result = partial.get(0);
+        for (int i = 1; i < partial.size(); i++) {
+            double[] acc = partial.get(i);
+            for (int j = 0; j < result.length; j++)
+                result[j] += acc[j];
+        }
+
+        if (edges) {
+            // sum both directions of every edge
+            int[] neighbors = graph.neighbors();
+            double[] sym = new double[result.length];
+            for (int v = 0; v < n; v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = neighbors[i];
+                    if (u > v) {
+                        int j = Arrays.binarySearch(neighbors, offsets[u], offsets[u + 1], v);
+                        sym[i] = sym[j] = (result[i] + result[j]) / 2;
+                    }
+                }
+            }
+            return sym;
+        }
+
+        for (int v = 0; v < n; v++)
+            result[v] /= 2; // every pair is reached from both ends
+
+        return result;
+    }
+
+    /**
+     * One Brandes iteration from source s, leaves dist filled with -1
+     */
+    private void accumulate(int s, int[] dist, double[] sigma, double[] delta, int[] order,
+                            double[] acc, boolean edges) {
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+
+        int head = 0;
+        int tail = 0;
+        order[tail++] = s;
+        dist[s] = 0;
+        sigma[s] = 1;
+        while (head < tail) {
+            int v = order[head++];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = neighbors[i];
+                if (dist[u] < 0) {
+                    dist[u] = dist[v] + 1;
+                    sigma[u] = 0;
+                    delta[u] = 0;
+                    order[tail++] = u;
+                }
+                if (dist[u] == dist[v] + 1)
+                    sigma[u] += sigma[v];
+            }
+        }
+        delta[s] = 0;
+
+        for (int k = tail - 1; k >= 0; k--) {
+            int w = order[k];
+            int prevLevel = dist[w] - 1;
+            dist[w] = -1; // successors are already reset, so -1 never matches prevLevel
+            if (w == s)
+                continue;
+            double coeff = (1 + delta[w]) / sigma[w];
+            for (int i = offsets[w]; i < offsets[w + 1]; i++) {
+                int v = neighbors[i];
+                if (dist[v] == prevLevel) {
+                    double c = sigma[v] * coeff;
+                    delta[v] += c;
+                    if (edges)
+                        acc[i] += c;
+                }
+            }
+            if (!edges)
+                acc[w] += delta[w];
+        }
+    }
+}
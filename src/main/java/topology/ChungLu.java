@@ -0,0 +1,94 @@
+package topology;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chung-Lu random graph: pair (u, v) is an edge independently with probability
+ * min(1, w(u)*w(v)/S), w - expected degrees, S - their sum. Expected degrees are met
+ * except for hubs with w(u)*w(v) > S.
+ * Miller, Hagberg "Efficient generation of networks with given expected degrees":
+ * nodes are ordered by weight descending, for every u candidates v follow in that order,
+ * so the probability only decreases. Gaps are drawn geometric with the current probability
+ * and a candidate is kept with the ratio of its own probability to it.
+ * The order is a counting sort of integer degrees.
+ *
+ * Complexity - O(N + M + max degree)
+ */
+public final class ChungLu {
+
+    private final int[] degrees;
+    private long seed = new SplittableRandom().nextLong();
+
+    /**
+     * @param degrees - expected degree of every node 0..n-1
+     */
+    public ChungLu(int[] degrees) {
+        for (int degree : degrees) {
+            if (degree < 0)
+                throw new RuntimeException("Degrees should be >= 0");
+        }
+        this.degrees = degrees;
+    }
+
+    /**
+     * The same seed gives the same graph
+     */
+    public ChungLu seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public EdgeList edges() {
+        int n = degrees.length;
+        int[] order = byDegreeDescending();
+        double sum = 0;
+        for (int degree : degrees)
+            sum += degree;
+        EdgeList edges = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8, (long) (sum / 2 * 1.05) + 16));
+        if (sum == 0)
+            return edges;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < n - 1; i++) {
+            double wu = degrees[order[i]];
+            if (wu == 0)
+                break; // the rest has weight 0 too
+            int j = i + 1;
+            double p = Math.min(1, wu * degrees[order[j]] / sum);
+            while (j < n && p > 0) {
+                if (p < 1) {
+                    double gap = Math.floor(Math.log1p(-random.nextDouble()) / Math.log1p(-p));
+                    if (gap >= n - j)
+                        break;
+                    j += (int) gap;
+                }
+                double q = Math.min(1, wu * degrees[order[j]] / sum);
+                if (random.nextDouble() < q / p)
+                    edges.add(order[i], order[j]);
+                p = q;
+                j++;
+            }
+        }
+
+        return edges;
+    }
+
+    public CompactTopology toCompact() {
+        return edges().toCompact(degrees.length);
+    }
+
+    private int[] byDegreeDescending() {
+        int max = 0;
+        for (int degree : degrees)
+            max = Math.max(max, degree);
+        int[] start = new int[max + 2];
+        for (int degree : degrees)
+            start[max - degree + 1]++;
+        for (int d = 0; d <= max; d++)
+            start[d + 1] += start[d];
+        int[] order = new int[degrees.length];
+        for (int v = 0; v < degrees.length; v++)
+            order[start[max - degrees[v]]++] = v;
+        return order;
+    }
+}
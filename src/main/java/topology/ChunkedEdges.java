@@ -0,0 +1,40 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel runner of random generators which cut their range of pairs into chunks
+ * of about CHUNK_EDGES expected edges. Every chunk has its own random stream split from the seed
+ * in chunk order, workers take chunks one by one and parts are joined in chunk order.
+ * Chunks don't depend on parallelism, so a seed gives the same graph for any parallelism.
+ */
+final class ChunkedEdges {
+
+    static final int CHUNK_EDGES = 1 << 20;
+
+    private ChunkedEdges() {
+    }
+
+    interface Chunk {
+        EdgeList generate(int chunk, SplittableRandom random);
+    }
+
+    static EdgeList generate(long seed, int parallelism, int chunks, Chunk task) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++)
+            streams[i] = root.split();
+
+        EdgeList[] parts = new EdgeList[chunks];
+        AtomicInteger nextChunk = new AtomicInteger();
+        Workers.run(Math.min(parallelism, chunks), worker -> {
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement())
+                parts[chunk] = task.generate(chunk, streams[chunk]);
+            return null;
+        });
+
+        return chunks == 1 ? parts[0] : EdgeList.concat(Arrays.asList(parts));
+    }
+}
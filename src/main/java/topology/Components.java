@@ -0,0 +1,180 @@
+package topology;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Connected components by lock-free concurrent union-find with Afforest sampling
+ * (Sutton, Ben-Nun, Barak "Optimizing parallel graph connectivity computation via subgraph sampling")
+ * Roots are linked by CAS, always the higher index under the lower one,
+ * so the root of every component ends up being its smallest index.
+ * First every node links to its first two neighbours, then the most frequent component
+ * is estimated by sampling and the rest of edges is processed only for nodes outside of it:
+ * an edge leaving that component is still seen from its other end.
+ * Nodes are shared between workers in chunks.
+ *
+ * Complexity - O((N+M)*α(N)/parallelism), usually much less than M edges are touched
+ */
+public final class Components {
+
+    private static final int CHUNK = 1024;
+    private static final int NEIGHBOR_ROUNDS = 2;
+    private static final int SAMPLES = 1024;
+
+    private final IntGraph graph;
+    private final int parallelism;
+    private int[] labels;
+    private int[] sizes;
+    private int count;
+    private int largest = -1;
+
+    public Components(IntGraph graph) {
+        this(graph, Workers.defaultParallelism());
+    }
+
+    public Components(IntGraph graph, int parallelism) {
+        this.graph = graph;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @return smallest dense index of component for every dense index
+     */
+    public int[] labels() {
+        run();
+        return labels;
+    }
+
+    /**
+     * @return size of component by its label, 0 for indexes which are not labels
+     */
+    public int[] sizes() {
+        run();
+        return sizes;
+    }
+
+    /**
+     * Count of components, isolated nodes included
+     */
+    public int count() {
+        run();
+        return count;
+    }
+
+    /**
+     * Label of largest component, the smallest one of equal sizes, -1 for empty graph
+     */
+    public int largest() {
+        run();
+        return largest;
+    }
+
+    public int largestSize() {
+        run();
+        return largest < 0 ? 0 : sizes[largest];
+    }
+
+    private void run() {
+        if (labels != null)
+            return;
+
+        int n = graph.nodesCount();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++)
+            parent.set(v, v);
+
+        for (int round = 0; round < NEIGHBOR_ROUNDS; round++) {
+            int skip = round;
+            parallel(n, (v, cursor) -> {
+                cursor.reset(v);
+                for (int i = 0; i < skip && cursor.hasNext(); i++)
+                    cursor.next();
+                if (cursor.hasNext())
+                    union(parent, v, cursor.next());
+            });
+        }
+
+        int frequent = n == 0 ? -1 : mostFrequentRoot(parent, n);
+        parallel(n, (v, cursor) -> {
+            if (find(parent, v) == frequent)
+                return;
+            cursor.reset(v);
+            for (int i = 0; i < NEIGHBOR_ROUNDS && cursor.hasNext(); i++)
+                cursor.next();
+            while (cursor.hasNext())
+                union(parent, v, cursor.next());
+        });
+
+        labels = new int[n];
+        sizes = new int[n];
+        for (int v = 0; v < n; v++) {
+            // roots have smaller indexes, so they are already final when reached
+            int p = parent.get(v);
+            int root = p == v ? v : labels[p];
+            labels[v] = root;
+            if (sizes[root]++ == 0)
+                count++;
+            if (largest < 0 || sizes[root] > sizes[largest] || (sizes[root] == sizes[largest] && root < largest))
+                largest = root;
+        }
+    }
+
+    private interface NodeTask {
+        void apply(int v, NeighborCursor cursor);
+    }
+
+    private void parallel(int n, NodeTask task) {
+        AtomicInteger nextChunk = new AtomicInteger();
+        Workers.run(parallelism, worker -> {
+            NeighborCursor cursor = graph.cursor();
+            for (int from = nextChunk.getAndAdd(CHUNK); from < n; from = nextChunk.getAndAdd(CHUNK)) {
+                int to = Math.min(n, from + CHUNK);
+                for (int v = from; v < to; v++)
+                    task.apply(v, cursor);
+            }
+            return null;
+        });
+    }
+
+    private static int mostFrequentRoot(AtomicIntegerArray parent, int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < SAMPLES; i++)
+            counts.merge(find(parent, random.nextInt(n)), 1, Integer::sum);
+        return counts.entrySet().stream().max(Map.Entry.comparingByValue()).get().getKey();
+    }
+
+    /**
+     * Root of x, halves path on the way
+     */
+    private static int find(AtomicIntegerArray parent, int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x)
+                return x;
+            int gp = parent.get(p);
+            if (gp != p)
+                parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int a, int b) {
+        while (true) {
+            a = find(parent, a);
+            b = find(parent, b);
+            if (a == b)
+                return;
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (parent.compareAndSet(a, a, b))
+                return;
+        }
+    }
+}
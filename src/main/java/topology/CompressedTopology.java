@@ -0,0 +1,258 @@
+package topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only graph with gap encoded neighbour lists, for graphs which don't fit into RAM as CSR.
+ * Neighbour list of index v is stored as varints:
+ * degree, zigzag(first - v), then gaps (next - previous - 1) of the sorted list.
+ * Neighbours of local and scale-free graphs are close to each other, so most entries take 1-2 bytes
+ * instead of 4 in CompactTopology.
+ *
+ * Access:
+ * - random by node: offset of every list is kept, cursor() jumps to any node in O(1)
+ * - sequential inside a list: cursor decodes one varint per neighbour
+ * - neighbor(v, i) and hasNeighbor(v, u) decode the list prefix, O(deg)
+ */
+public final class CompressedTopology extends IntGraph {
+
+    static final int PAGE_BITS = 26; // 64MB pages, list of pages grows over 2GB limit of one array
+    static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final int[] ids; // dense index -> node id, null if ids are exactly 0..n-1
+    private final long[] offsets; // byte position of every list
+    private final byte[][] pages;
+    private final long edges;
+
+    private CompressedTopology(int[] ids, long[] offsets, byte[][] pages, long edges) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.pages = pages;
+        this.edges = edges;
+    }
+
+    public static CompressedTopology of(Topology tp) {
+        return of(tp.freeze());
+    }
+
+    /**
+     * Complexity - O(N+M), neighbours of graph must be ascending (true for all IntGraphs here)
+     */
+    public static CompressedTopology of(IntGraph graph) {
+        int n = graph.nodesCount();
+        int[] ids = null;
+        for (int v = 0; v < n; v++) {
+            if (graph.nodeId(v) != v) {
+                ids = new int[n];
+                for (int u = 0; u < n; u++)
+                    ids[u] = graph.nodeId(u);
+                break;
+            }
+        }
+
+        long[] offsets = new long[n];
+        PageWriter out = new PageWriter();
+        NeighborCursor cursor = graph.cursor();
+        for (int v = 0; v < n; v++) {
+            offsets[v] = out.position;
+            out.writeVarInt(graph.degree(v));
+            cursor.reset(v);
+            int prev = -1;
+            while (cursor.hasNext()) {
+                int neigh = cursor.next();
+                if (prev < 0) {
+                    int delta = neigh - v;
+                    out.writeVarInt((delta << 1) ^ (delta >> 31)); // zigzag, first neighbour may be less than v
+                } else {
+                    if (neigh <= prev)
+                        throw new RuntimeException("Neighbours of node " + graph.nodeId(v) + " are not ascending");
+                    out.writeVarInt(neigh - prev - 1);
+                }
+                prev = neigh;
+            }
+        }
+
+        return new CompressedTopology(ids, offsets, out.pages(), graph.edgesCount());
+    }
+
+    private int byteAt(long pos) {
+        return pages[(int) (pos >>> PAGE_BITS)][(int) (pos & PAGE_MASK)] & 0xFF;
+    }
+
+    @Override
+    public int nodesCount() {
+        return offsets.length;
+    }
+
+    @Override
+    public long edgesCount() {
+        return edges;
+    }
+
+    @Override
+    public int degree(int index) {
+        long pos = offsets[index];
+        int b = byteAt(pos++);
+        int value = b & 0x7F;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            b = byteAt(pos++);
+            value |= (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    @Override
+    public int nodeId(int index) {
+        return ids == null ? index : ids[index];
+    }
+
+    @Override
+    public int indexOf(int node) {
+        if (ids == null)
+            return node >= 0 && node < nodesCount() ? node : -1;
+        int index = Arrays.binarySearch(ids, node);
+        return index >= 0 ? index : -1;
+    }
+
+    @Override
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * i-th (from 0) neighbour in ascending order, O(i) decoding
+     */
+    public int neighbor(int index, int i) {
+        Cursor cursor = cursor().reset(index);
+        if (i < 0 || i >= cursor.remaining)
+            throw new IndexOutOfBoundsException("Node has " + cursor.remaining + " neighbours, requested " + i);
+        int neigh = -1;
+        for (int k = 0; k <= i; k++)
+            neigh = cursor.next();
+        return neigh;
+    }
+
+    /**
+     * Decoding stops as soon as the sorted list passes the target
+     */
+    public boolean hasNeighbor(int index, int neighIndex) {
+        Cursor cursor = cursor().reset(index);
+        while (cursor.hasNext()) {
+            int neigh = cursor.next();
+            if (neigh >= neighIndex)
+                return neigh == neighIndex;
+        }
+        return false;
+    }
+
+    /**
+     * Size of encoded neighbour lists, without offsets and ids
+     */
+    public long bytesUsed() {
+        long bytes = 0;
+        for (byte[] page : pages)
+            bytes += page.length;
+        return bytes;
+    }
+
+    /**
+     * Decompressed CSR copy
+     */
+    public CompactTopology toCompact() {
+        int n = nodesCount();
+        int[] csrOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            csrOffsets[v + 1] = csrOffsets[v] + degree(v);
+        int[] neighbors = new int[csrOffsets[n]];
+        Cursor cursor = cursor();
+        for (int v = 0; v < n; v++) {
+            cursor.reset(v);
+            for (int i = csrOffsets[v]; cursor.hasNext(); i++)
+                neighbors[i] = cursor.next();
+        }
+
+        return new CompactTopology(ids, csrOffsets, neighbors);
+    }
+
+    public final class Cursor implements NeighborCursor {
+        private long pos;
+        private int remaining;
+        private int prev;
+        private int node;
+
+        private int readVarInt() {
+            int b = byteAt(pos++);
+            int value = b & 0x7F;
+            for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+                b = byteAt(pos++);
+                value |= (b & 0x7F) << shift;
+            }
+            return value;
+        }
+
+        @Override
+        public Cursor reset(int index) {
+            pos = offsets[index];
+            node = index;
+            remaining = readVarInt();
+            prev = -1;
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public int next() {
+            int value = readVarInt();
+            remaining--;
+            if (prev < 0)
+                prev = node + ((value >>> 1) ^ -(value & 1));
+            else
+                prev = prev + value + 1;
+            return prev;
+        }
+    }
+
+    /**
+     * Appends varints into fixed size pages, last page is trimmed by pages()
+     */
+    private static final class PageWriter {
+        final List<byte[]> pages = new ArrayList<>();
+        byte[] page = new byte[1 << 16];
+        int pagePos;
+        long position;
+
+        void writeByte(int b) {
+            if (pagePos == page.length) {
+                if (page.length < (1 << PAGE_BITS)) {
+                    page = Arrays.copyOf(page, page.length * 2);
+                } else {
+                    pages.add(page);
+                    page = new byte[1 << 16];
+                    pagePos = 0;
+                }
+            }
+            page[pagePos++] = (byte) b;
+            position++;
+        }
+
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        byte[][] pages() {
+            List<byte[]> result = new ArrayList<>(pages);
+            result.add(Arrays.copyOf(page, pagePos));
+            return result.toArray(new byte[0][]);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Random graph with given degree sequence by stub pairing (configuration model):
+ * node v puts degree[v] stubs into one int array, the array is shuffled
+ * and consecutive stubs are paired into edges.
+ * MULTIGRAPH - pairs are kept as they are, with self loops and multi-edges, degrees are exact
+ * ERASED - self loops and multi-edges are dropped, degrees of hubs may become a bit smaller
+ *
+ * Memory - 4 * sum of degrees bytes for stubs
+ * Complexity - O(N+M) for MULTIGRAPH, O(N+M*log(M)) for ERASED
+ */
+public final class ConfigurationModel {
+
+    public enum Mode {
+        MULTIGRAPH,
+        ERASED
+    }
+
+    private final int[] degrees;
+    private Mode mode = Mode.ERASED;
+    private long seed = new SplittableRandom().nextLong();
+
+    /**
+     * @param degrees - degree of every node 0..n-1, sum should be even
+     */
+    public ConfigurationModel(int[] degrees) {
+        long sum = 0;
+        for (int degree : degrees) {
+            if (degree < 0)
+                throw new RuntimeException("Degrees should be >= 0");
+            sum += degree;
+        }
+        if (sum % 2 != 0)
+            throw new RuntimeException("Sum of degrees should be even, got " + sum);
+        if (sum > Integer.MAX_VALUE - 8)
+            throw new RuntimeException("Too many stubs for one array: " + sum);
+        this.degrees = degrees;
+    }
+
+    public ConfigurationModel mode(Mode mode) {
+        this.mode = mode;
+        return this;
+    }
+
+    /**
+     * The same seed gives the same graph
+     */
+    public ConfigurationModel seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public EdgeList edges() {
+        int total = 0;
+        for (int degree : degrees)
+            total += degree;
+        int[] stubs = new int[total];
+        int pos = 0;
+        for (int v = 0; v < degrees.length; v++) {
+            Arrays.fill(stubs, pos, pos + degrees[v], v);
+            pos += degrees[v];
+        }
+
+        // Fisher-Yates
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = stubs[i];
+            stubs[i] = stubs[j];
+            stubs[j] = tmp;
+        }
+
+        if (mode == Mode.MULTIGRAPH) {
+            EdgeList edges = new EdgeList(total / 2);
+            for (int i = 0; i < total; i += 2)
+                edges.add(stubs[i], stubs[i + 1]);
+            return edges;
+        }
+
+        // normalized pairs sorted together drop duplicates, stubs are no longer needed
+        long[] pairs = new long[total / 2];
+        int size = 0;
+        for (int i = 0; i < total; i += 2) {
+            int a = stubs[i];
+            int b = stubs[i + 1];
+            if (a != b)
+                pairs[size++] = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        }
+        stubs = null;
+        Arrays.parallelSort(pairs, 0, size);
+        EdgeList edges = new EdgeList(size);
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || pairs[i] != pairs[i - 1])
+                edges.add((int) (pairs[i] >>> 32), (int) pairs[i]);
+        }
+        return edges;
+    }
+
+    /**
+     * Snapshot is a simple graph, so self loops and multi-edges are dropped in any mode
+     */
+    public CompactTopology toCompact() {
+        return edges().toCompact(degrees.length);
+    }
+}
@@ -0,0 +1,279 @@
+package topology;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * k-core decomposition: core number of a node is the largest k such that
+ * it belongs to a subgraph where every node has degree at least k.
+ * Sequential - bucket peeling by Batagelj, Zaversnik "An O(m) algorithm for cores decomposition of networks".
+ * Parallel - h-index iteration (Lu et al. "The H-index of a network node and its relation to degree and coreness"):
+ * starting from degrees, every node takes the h-index of its neighbours' values
+ * until nothing changes, values only decrease and converge to core numbers.
+ */
+public final class CoreDecomposition {
+
+    private static final int CHUNK = 1024;
+
+    private final CompactTopology graph;
+    private int[] cores;
+
+    public CoreDecomposition(CompactTopology graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Complexity - O(N+M)
+     * @return core number of every dense index
+     */
+    public int[] coreNumbers() {
+        if (cores == null)
+            cores = peel();
+        return cores;
+    }
+
+    /**
+     * Same result as coreNumbers() by parallel h-index iteration
+     * Complexity - O(M) per iteration, iterations are bounded by N but usually a few tens
+     */
+    public int[] coreNumbers(int parallelism) {
+        if (cores == null)
+            cores = hIndex(Math.max(1, parallelism));
+        return cores;
+    }
+
+    /**
+     * Largest core number
+     */
+    public int degeneracy() {
+        int max = 0;
+        for (int core : coreNumbers())
+            max = Math.max(max, core);
+        return max;
+    }
+
+    /**
+     * @return count of nodes with core number k at index k, 0..degeneracy
+     */
+    public int[] shellSizes() {
+        int[] sizes = new int[degeneracy() + 1];
+        for (int core : coreNumbers())
+            sizes[core]++;
+        return sizes;
+    }
+
+    /**
+     * Subgraph induced by nodes with core number at least k
+     * View over the snapshot: only node indexes and degrees inside the core are stored,
+     * neighbours are filtered on the fly
+     */
+    public IntGraph core(int k) {
+        return new CoreView(coreNumbers(), k);
+    }
+
+    private int[] peel() {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        int[] degree = new int[n];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            degree[v] = graph.degree(v);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+
+        int[] bin = new int[maxDegree + 1]; // start of every degree bucket in vert
+        for (int v = 0; v < n; v++)
+            bin[degree[v]]++;
+        int start = 0;
+        for (int d = 0; d <= maxDegree; d++) {
+            int count = bin[d];
+            bin[d] = start;
+            start += count;
+        }
+        int[] vert = new int[n];
+        int[] pos = new int[n];
+        for (int v = 0; v < n; v++) {
+            pos[v] = bin[degree[v]]++;
+            vert[pos[v]] = v;
+        }
+        for (int d = maxDegree; d > 0; d--)
+            bin[d] = bin[d - 1];
+        bin[0] = 0;
+
+        for (int i = 0; i < n; i++) {
+            int v = vert[i];
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                int u = neighbors[j];
+                if (degree[u] > degree[v]) {
+                    int du = degree[u];
+                    int w = vert[bin[du]];
+                    if (u != w) {
+                        pos[w] = pos[u];
+                        vert[pos[u]] = w;
+                        pos[u] = bin[du];
+                        vert[pos[u]] = u;
+                    }
+                    bin[du]++;
+                    degree[u]--;
+                }
+            }
+        }
+
+        return degree;
+    }
+
+    private int[] hIndex(int parallelism) {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        int[] values = new int[n];
+        for (int v = 0; v < n; v++)
+            values[v] = graph.degree(v);
+
+        boolean changed = true;
+        while (changed) {
+            AtomicInteger nextChunk = new AtomicInteger();
+            List<Boolean> results = Workers.run(parallelism, worker -> {
+                int[] count = new int[0];
+                boolean workerChanged = false;
+                for (int from = nextChunk.getAndAdd(CHUNK); from < n; from = nextChunk.getAndAdd(CHUNK)) {
+                    int to = Math.min(n, from + CHUNK);
+                    for (int v = from; v < to; v++) {
+                        int current = values[v];
+                        if (current == 0)
+                            continue;
+                        if (count.length <= current)
+                            count = new int[Math.max(current + 1, 2 * count.length)];
+                        // h-index of neighbours' values capped by current value
+                        for (int i = offsets[v]; i < offsets[v + 1]; i++)
+                            count[Math.min(values[neighbors[i]], current)]++;
+                        int h = current;
+                        int atLeast = count[current];
+                        while (atLeast < h) {
+                            h--;
+                            atLeast += count[h];
+                        }
+                        for (int i = 0; i <= current; i++)
+                            count[i] = 0;
+                        if (h < current) {
+                            values[v] = h; // racy reads elsewhere only see values that are still upper bounds
+                            workerChanged = true;
+                        }
+                    }
+                }
+                return workerChanged;
+            });
+            changed = results.contains(true);
+        }
+
+        return values;
+    }
+
+    /**
+     * k-core as IntGraph without copying adjacency
+     */
+    private final class CoreView extends IntGraph {
+        final int[] cores;
+        final int k;
+        final int[] members; // view index -> snapshot index
+        final int[] viewIndex; // snapshot index -> view index or -1
+        final int[] degrees; // degree inside the core of every view index
+        final long edges;
+
+        CoreView(int[] cores, int k) {
+            this.cores = cores;
+            this.k = k;
+            int n = graph.nodesCount();
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                if (cores[v] >= k)
+                    count++;
+            }
+            members = new int[count];
+            viewIndex = new int[n];
+            count = 0;
+            for (int v = 0; v < n; v++) {
+                viewIndex[v] = cores[v] >= k ? count : -1;
+                if (cores[v] >= k)
+                    members[count++] = v;
+            }
+
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            degrees = new int[count];
+            long sum = 0;
+            for (int index = 0; index < count; index++) {
+                int v = members[index];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (cores[neighbors[i]] >= k)
+                        degrees[index]++;
+                }
+                sum += degrees[index];
+            }
+            edges = sum / 2;
+        }
+
+        @Override
+        public int nodesCount() {
+            return members.length;
+        }
+
+        @Override
+        public long edgesCount() {
+            return edges;
+        }
+
+        @Override
+        public int degree(int index) {
+            return degrees[index];
+        }
+
+        @Override
+        public int nodeId(int index) {
+            return graph.nodeId(members[index]);
+        }
+
+        @Override
+        public int indexOf(int node) {
+            int v = graph.indexOf(node);
+            return v < 0 ? -1 : viewIndex[v];
+        }
+
+        @Override
+        public NeighborCursor cursor() {
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            return new NeighborCursor() {
+                int pos;
+                int end;
+
+                @Override
+                public NeighborCursor reset(int index) {
+                    int v = members[index];
+                    pos = offsets[v];
+                    end = offsets[v + 1];
+                    skip();
+                    return this;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return pos < end;
+                }
+
+                @Override
+                public int next() {
+                    int index = viewIndex[neighbors[pos++]];
+                    skip();
+                    return index;
+                }
+
+                private void skip() {
+                    while (pos < end && cores[neighbors[pos]] < k)
+                        pos++;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Exact eccentricities, diameter, radius, center and periphery by eccentricity bounding
+ * (Takes, Kosters "Computing the eccentricity distribution of large graphs").
+ * After BFS from v with e = ecc(v), for every w:
+ * max(e - d(v,w), d(v,w)) <= ecc(w) <= e + d(v,w)
+ * Nodes are dropped once their bounds meet, BFS sources alternate between the node
+ * with the largest upper bound and the node with the smallest lower bound.
+ * On real networks it takes a handful of BFS instead of one per node.
+ *
+ * Eccentricity is taken within the node's connected component, isolated nodes have 0.
+ */
+public final class Eccentricities {
+
+    private final IntGraph graph;
+    private int[] eccentricities;
+    private int bfsCount;
+
+    public Eccentricities(IntGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Max of diameters of connected components
+     * Bounding with extra pruning: nodes whose upper bound can't beat found diameter are dropped
+     */
+    public int diameter() {
+        if (eccentricities != null)
+            return Arrays.stream(eccentricities).max().orElse(0);
+        return bound(false);
+    }
+
+    /**
+     * @return eccentricity of every dense index
+     */
+    public int[] eccentricities() {
+        if (eccentricities == null) {
+            eccentricities = new int[graph.nodesCount()];
+            bound(true);
+        }
+        return eccentricities;
+    }
+
+    /**
+     * Min eccentricity over all nodes
+     */
+    public int radius() {
+        return Arrays.stream(eccentricities()).min().orElse(0);
+    }
+
+    /**
+     * Ids of nodes with eccentricity equal to radius
+     */
+    public int[] center() {
+        int radius = radius();
+        return withEccentricity(radius);
+    }
+
+    /**
+     * Ids of nodes with eccentricity equal to diameter
+     */
+    public int[] periphery() {
+        int diameter = diameter();
+        return withEccentricity(diameter);
+    }
+
+    private int[] withEccentricity(int value) {
+        int[] ecc = eccentricities();
+        return IntStream.range(0, ecc.length).filter(v -> ecc[v] == value).map(graph::nodeId).toArray();
+    }
+
+    /**
+     * BFS runs done so far
+     */
+    public int bfsCount() {
+        return bfsCount;
+    }
+
+    /**
+     * @param all - compute every eccentricity into this.eccentricities, otherwise only the diameter
+     * @return diameter
+     */
+    private int bound(boolean all) {
+        int n = graph.nodesCount();
+        int[] lower = new int[n];
+        int[] upper = new int[n];
+        int[] dist = graph.emptyDist();
+        int[] queue = new int[n];
+        int[] candidates = new int[n];
+        boolean[] marked = new boolean[n];
+        NeighborCursor cursor = graph.cursor();
+        int diameter = 0;
+
+        for (int start = 0; start < n; start++) {
+            if (marked[start])
+                continue;
+            // component of start becomes the candidate set, BFS from start is the first bounding BFS
+            int size = graph.bfs(start, dist, queue, cursor);
+            bfsCount++;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int w = queue[i];
+                marked[w] = true;
+                lower[w] = 0;
+                upper[w] = Integer.MAX_VALUE;
+                candidates[count++] = w;
+            }
+
+            boolean pickUpper = true;
+            while (true) {
+                int ecc = dist[queue[size - 1]];
+                diameter = Math.max(diameter, ecc);
+
+                int kept = 0;
+                for (int k = 0; k < count; k++) {
+                    int w = candidates[k];
+                    int d = dist[w];
+                    lower[w] = Math.max(lower[w], Math.max(ecc - d, d));
+                    upper[w] = Math.min(upper[w], ecc + d);
+                    diameter = Math.max(diameter, lower[w]);
+                    if (lower[w] == upper[w]) {
+                        if (all)
+                            eccentricities[w] = lower[w];
+                    } else if (all || upper[w] > diameter) {
+                        candidates[kept++] = w;
+                    }
+                }
+                count = kept;
+                IntGraph.reset(dist, queue, size);
+                if (count == 0)
+                    break;
+
+                int v = select(candidates, count, lower, upper, pickUpper);
+                pickUpper = !pickUpper;
+                size = graph.bfs(v, dist, queue, cursor);
+                bfsCount++;
+            }
+        }
+
+        return diameter;
+    }
+
+    /**
+     * Node with the largest upper or the smallest lower bound, ties are broken by larger degree
+     */
+    private int select(int[] candidates, int count, int[] lower, int[] upper, boolean pickUpper) {
+        int best = candidates[0];
+        for (int k = 1; k < count; k++) {
+            int w = candidates[k];
+            int cmp = pickUpper ? Integer.compare(upper[w], upper[best]) : Integer.compare(lower[best], lower[w]);
+            if (cmp > 0 || (cmp == 0 && graph.degree(w) > graph.degree(best)))
+                best = w;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,185 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Growable list of edges packed into a long[] (node1 in high, node2 in low 32 bits)
+ * Collects edges from importers and generators and turns them into CompactTopology
+ * without boxed intermediate. Duplicates, reversed duplicates and self loops are allowed
+ * in the list and dropped while building the snapshot.
+ */
+public final class EdgeList {
+
+    private long[] edges;
+    private int size;
+
+    public EdgeList() {
+        this(16);
+    }
+
+    public EdgeList(int expectedSize) {
+        edges = new long[Math.max(1, expectedSize)];
+    }
+
+    public void add(int node1, int node2) {
+        if (size == edges.length)
+            edges = Arrays.copyOf(edges, (int) Math.min(Integer.MAX_VALUE - 8, edges.length * 2L));
+        edges[size++] = ((long) node1 << 32) | (node2 & 0xFFFFFFFFL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int node1(int i) {
+        return (int) (edges[i] >> 32);
+    }
+
+    public int node2(int i) {
+        return (int) edges[i];
+    }
+
+    public static EdgeList concat(List<EdgeList> parts) {
+        long total = parts.stream().mapToLong(EdgeList::size).sum();
+        if (total > Integer.MAX_VALUE - 8)
+            throw new RuntimeException("Too many edges for one EdgeList: " + total);
+        EdgeList result = new EdgeList((int) total);
+        for (EdgeList part : parts) {
+            System.arraycopy(part.edges, 0, result.edges, result.size, part.size);
+            result.size += part.size;
+        }
+
+        return result;
+    }
+
+    /**
+     * Snapshot where nodes are all ids found in the list
+     * The list is consumed: its content is reused as a working buffer
+     */
+    public CompactTopology toCompact() {
+        return toCompact(endpoints());
+    }
+
+    /**
+     * Snapshot with nodes 0..nodesCount-1, including isolated ones
+     * The list is consumed: its content is reused as a working buffer
+     */
+    public CompactTopology toCompact(int nodesCount) {
+        return toCompact(IntStream.range(0, nodesCount).toArray());
+    }
+
+    /**
+     * Snapshot with given nodes, including isolated ones
+     * The list is consumed: its content is reused as a working buffer
+     * Complexity - O(M*log(M)) - parallel sort of normalized edges
+     * @param ids - sorted, unique node ids, every edge endpoint must be here
+     */
+    public CompactTopology toCompact(int[] ids) {
+        int n = ids.length;
+        boolean identity = true;
+        for (int i = 0; i < n && identity; i++)
+            identity = ids[i] == i;
+        boolean finalIdentity = identity;
+
+        // map to dense indexes and normalize as (min, max), self loops become -1
+        IntStream.range(0, size).parallel().forEach(i -> {
+            int a = finalIdentity ? node1(i) : Arrays.binarySearch(ids, node1(i));
+            int b = finalIdentity ? node2(i) : Arrays.binarySearch(ids, node2(i));
+            if (a < 0 || b < 0 || a >= n || b >= n)
+                throw new RuntimeException("Edge " + node1(i) + " - " + node2(i) + " has unknown node");
+            edges[i] = a == b ? -1 : ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        });
+        Arrays.parallelSort(edges, 0, size);
+
+        int from = 0;
+        while (from < size && edges[from] < 0)
+            from++;
+        int unique = 0;
+        for (int i = from; i < size; i++) {
+            if (unique == 0 || edges[unique - 1] != edges[i])
+                edges[unique++] = edges[i];
+        }
+        size = unique;
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[node1(i) + 1]++;
+            offsets[node2(i) + 1]++;
+        }
+        long total = 0;
+        for (int v = 0; v < n; v++) {
+            total += offsets[v + 1];
+            if (total > Integer.MAX_VALUE - 8)
+                throw new RuntimeException("Graph is too large for int offsets");
+            offsets[v + 1] = (int) total;
+        }
+
+        // pairs are sorted by (min, max), so every neighbour list is filled in ascending order
+        int[] neighbors = new int[(int) total];
+        int[] pos = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < size; i++) {
+            int a = node1(i);
+            int b = node2(i);
+            neighbors[pos[a]++] = b;
+            neighbors[pos[b]++] = a;
+        }
+        size = 0;
+
+        return new CompactTopology(identity ? null : ids, offsets, neighbors);
+    }
+
+    /**
+     * Sorted unique endpoints, bitmap over id range when it fits, sort otherwise
+     */
+    private int[] endpoints() {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, Math.min(node1(i), node2(i)));
+            max = Math.max(max, Math.max(node1(i), node2(i)));
+        }
+        if (size == 0)
+            return new int[0];
+
+        long range = max - min + 1;
+        if (range <= Integer.MAX_VALUE) {
+            long[] bits = new long[(int) ((range + 63) >>> 6)];
+            for (int i = 0; i < size; i++) {
+                long a = node1(i) - min;
+                long b = node2(i) - min;
+                bits[(int) (a >>> 6)] |= 1L << a;
+                bits[(int) (b >>> 6)] |= 1L << b;
+            }
+            int count = 0;
+            for (long word : bits)
+                count += Long.bitCount(word);
+            int[] ids = new int[count];
+            int k = 0;
+            for (int w = 0; w < bits.length; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    ids[k++] = (int) (min + ((long) w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return ids;
+        }
+
+        if (size > Integer.MAX_VALUE / 2 - 8)
+            throw new RuntimeException("Node ids are too sparse for " + size + " edges");
+        int[] all = new int[size * 2];
+        for (int i = 0; i < size; i++) {
+            all[2 * i] = node1(i);
+            all[2 * i + 1] = node2(i);
+        }
+        Arrays.parallelSort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (unique == 0 || all[unique - 1] != all[i])
+                all[unique++] = all[i];
+        }
+        return Arrays.copyOf(all, unique);
+    }
+}
@@ -0,0 +1,177 @@
+package topology;
+
+import utils.LongHashSet;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+/**
+ * Erdos-Renyi random graphs on nodes 0..n-1 in O(N+M)
+ * Node pairs (v, w), w < v, are numbered row by row: k = v(v-1)/2 + w.
+ * G(n,p) - every pair independently with probability p: the gap to the next chosen pair
+ * is geometric, so only chosen pairs are visited (Batagelj, Brandes
+ * "Efficient generation of large random networks").
+ * G(n,m) - exactly m distinct pairs by rejection on a LongHashSet of pair numbers,
+ * above half of the pairs the complement is sampled instead.
+ *
+ * The pair range is cut into equal chunks generated in parallel, see ChunkedEdges.
+ * In G(n,m) with several chunks every chunk gets its proportional share of m (stratified
+ * sampling), so counts per chunk don't vary as they would in a uniform draw of m pairs.
+ */
+public final class ErdosRenyi {
+
+    private final int nodesCount;
+    private final long pairs;
+    private long seed = new SplittableRandom().nextLong();
+    private int parallelism = Workers.defaultParallelism();
+
+    public ErdosRenyi(int nodesCount) {
+        if (nodesCount < 0)
+            throw new RuntimeException("Expected nodesCount >= 0");
+        this.nodesCount = nodesCount;
+        this.pairs = (long) nodesCount * (nodesCount - 1) / 2;
+    }
+
+    /**
+     * The same seed gives the same graph
+     */
+    public ErdosRenyi seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public ErdosRenyi parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * G(n,p), every node pair is an edge with given probability
+     * Complexity - O(N + M/parallelism)
+     */
+    public EdgeList gnp(double probability) {
+        if (probability <= 0 || pairs == 0)
+            return new EdgeList();
+        double p = Math.min(1, probability);
+        int chunks = chunks(p * pairs);
+        return ChunkedEdges.generate(seed, parallelism, chunks, (chunk, random) -> {
+            long from = bound(chunk, chunks);
+            long to = bound(chunk + 1, chunks);
+            EdgeList edges = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8, (to - from) * p * 1.05 + 16));
+            gnpChunk(from, to, p, random, 0, edges);
+            return edges;
+        });
+    }
+
+    /**
+     * G(n,m), exactly edgesCount edges chosen uniformly among node pairs
+     * Complexity - O(N + M/parallelism)
+     */
+    public EdgeList gnm(long edgesCount) {
+        if (edgesCount < 0 || edgesCount > pairs)
+            throw new RuntimeException("Expected 0.." + pairs + " edges for " + nodesCount + " nodes");
+        if (edgesCount == 0)
+            return new EdgeList();
+        int chunks = chunks(edgesCount);
+        return ChunkedEdges.generate(seed, parallelism, chunks, (chunk, random) -> {
+            long from = bound(chunk, chunks);
+            long to = bound(chunk + 1, chunks);
+            long count = share(edgesCount, to) - share(edgesCount, from);
+            return gnmChunk(from, to, (int) count, random);
+        });
+    }
+
+    private int chunks(double expectedEdges) {
+        return (int) Math.max(1, Math.min(Math.min(pairs, Integer.MAX_VALUE), Math.ceil(expectedEdges / ChunkedEdges.CHUNK_EDGES)));
+    }
+
+    /**
+     * First pair number of chunk, pairs are split into equal ranges
+     */
+    private long bound(int chunk, int chunks) {
+        return pairs / chunks * chunk + Math.min(chunk, pairs % chunks);
+    }
+
+    /**
+     * floor(edges * pair / pairs) without overflow, differences of neighbouring bounds sum to edges
+     */
+    private long share(long edges, long pair) {
+        return BigInteger.valueOf(edges).multiply(BigInteger.valueOf(pair))
+                .divide(BigInteger.valueOf(pairs)).longValueExact();
+    }
+
+    /**
+     * Pairs with numbers in [from, to) chosen with probability p, node ids shifted by shift
+     * Also used for blocks of StochasticBlockModel
+     */
+    static void gnpChunk(long from, long to, double p, SplittableRandom random, int shift, EdgeList edges) {
+        double logQ = Math.log1p(-p); // -Infinity for p = 1, every gap is then 0
+        PairCursor cursor = new PairCursor(from);
+        long k = from - 1;
+        while (true) {
+            double gap = Math.floor(Math.log1p(-random.nextDouble()) / logQ);
+            if (gap >= to - k - 1)
+                break;
+            k += 1 + (long) gap;
+            cursor.moveTo(k);
+            edges.add(shift + cursor.v, shift + (int) cursor.w);
+        }
+    }
+
+    private static EdgeList gnmChunk(long from, long to, int count, SplittableRandom random) {
+        long size = to - from;
+        EdgeList edges = new EdgeList(count);
+        if (count > size / 2) {
+            // dense: draw pairs to leave out, then walk the whole range
+            LongHashSet skipped = new LongHashSet((int) (size - count));
+            while (skipped.size() < size - count)
+                skipped.add(random.nextLong(size));
+            PairCursor cursor = new PairCursor(from);
+            for (long offset = 0; offset < size; offset++) {
+                cursor.moveTo(from + offset);
+                if (!skipped.contains(offset))
+                    edges.add(cursor.v, (int) cursor.w);
+            }
+        } else {
+            LongHashSet chosen = new LongHashSet(count);
+            while (chosen.size() < count) {
+                long k = from + random.nextLong(size);
+                if (chosen.add(k)) {
+                    PairCursor cursor = new PairCursor(k);
+                    edges.add(cursor.v, (int) cursor.w);
+                }
+            }
+        }
+
+        return edges;
+    }
+
+    /**
+     * Pair (v, w) of pair number k, moves forward row by row
+     */
+    private static final class PairCursor {
+        int v;
+        long w;
+        long k;
+
+        PairCursor(long k) {
+            long row = (long) ((1 + Math.sqrt(1 + 8.0 * k)) / 2);
+            while (row * (row - 1) / 2 > k)
+                row--;
+            while ((row + 1) * row / 2 <= k)
+                row++;
+            this.v = (int) row;
+            this.w = k - row * (row - 1) / 2;
+            this.k = k;
+        }
+
+        void moveTo(long target) {
+            w += target - k;
+            k = target;
+            while (w >= v) {
+                w -= v;
+                v++;
+            }
+        }
+    }
+}
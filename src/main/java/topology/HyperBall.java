@@ -0,0 +1,253 @@
+package topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Approximate neighbourhood function by HyperBall
+ * (Boldi, Vigna "In-core computation of geometric centralities with HyperBall")
+ * Every node has a HyperLogLog counter of nodes within distance t, counter of t+1
+ * is the union of counters of the node and its neighbours at t. A union is
+ * register-wise max, registers are bytes packed 8 per long and maxed 8 at a time (SWAR).
+ * Iterations stop when no counter changes, that is after about diameter steps.
+ * Two register arrays are swapped between iterations, workers own node ranges.
+ *
+ * Memory - 2 * N * 2^log2m bytes
+ * Complexity - O(D * (N+M) * 2^log2m / 8 / parallelism), D - diameter
+ * Relative error of a single counter is about 1.04/sqrt(2^log2m)
+ */
+public final class HyperBall {
+
+    private static final long HIGH = 0x8080808080808080L;
+
+    private final CompactTopology graph;
+    private int log2m = 7;
+    private int parallelism = Workers.defaultParallelism();
+    private long seed = 0x9E3779B97F4A7C15L;
+    private int maxIterations = Integer.MAX_VALUE;
+
+    private double[] neighbourhood;
+    private double[] harmonic;
+
+    public HyperBall(CompactTopology graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * @param log2m - log2 of registers per counter, 4..16
+     */
+    public HyperBall registers(int log2m) {
+        if (log2m < 4 || log2m > 16)
+            throw new RuntimeException("log2m should be in 4..16");
+        this.log2m = log2m;
+        neighbourhood = null;
+        return this;
+    }
+
+    public HyperBall parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        neighbourhood = null;
+        return this;
+    }
+
+    public HyperBall seed(long seed) {
+        this.seed = seed;
+        neighbourhood = null;
+        return this;
+    }
+
+    /**
+     * Stop after given count of iterations, neighbourhood function is then cut at that distance
+     */
+    public HyperBall maxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+        neighbourhood = null;
+        return this;
+    }
+
+    /**
+     * N(t) - estimated count of ordered pairs (v, u) with d(v,u) <= t, N(0) = n
+     */
+    public double[] neighbourhoodFunction() {
+        run();
+        return neighbourhood;
+    }
+
+    /**
+     * Estimated sum of 1/d(v,u) over all u != v
+     * @return harmonic centrality of every dense index
+     */
+    public double[] harmonic() {
+        run();
+        return harmonic;
+    }
+
+    /**
+     * Smallest distance, linearly interpolated, within which given share of connected pairs is
+     */
+    public double effectiveDiameter(double share) {
+        double[] nf = neighbourhoodFunction();
+        double target = share * nf[nf.length - 1];
+        for (int t = 0; t < nf.length; t++) {
+            if (nf[t] >= target)
+                return t == 0 ? 0 : t - 1 + (target - nf[t - 1]) / (nf[t] - nf[t - 1]);
+        }
+        return nf.length - 1;
+    }
+
+    public double effectiveDiameter() {
+        return effectiveDiameter(0.9);
+    }
+
+    /**
+     * Estimated mean distance between connected pairs of distinct nodes
+     */
+    public double averageDistance() {
+        double[] nf = neighbourhoodFunction();
+        double sum = 0;
+        for (int t = 1; t < nf.length; t++)
+            sum += t * (nf[t] - nf[t - 1]);
+        double pairs = nf[nf.length - 1] - nf[0];
+        return pairs <= 0 ? 0 : sum / pairs;
+    }
+
+    private void run() {
+        if (neighbourhood != null)
+            return;
+
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        int m = 1 << log2m;
+        int words = m / 8; // longs per counter
+        if ((long) n * words > Integer.MAX_VALUE - 8)
+            throw new RuntimeException("Too many registers for " + n + " nodes, use smaller log2m");
+        long[] current = new long[n * words];
+        long[] next = new long[n * words];
+        for (int v = 0; v < n; v++)
+            add(current, v * words, v);
+
+        double[] estimate = new double[n];
+        harmonic = new double[n];
+        boolean[] changed = new boolean[n];
+        boolean[] nextChanged = new boolean[n];
+        Arrays.fill(changed, true);
+        for (int v = 0; v < n; v++)
+            estimate[v] = count(current, v * words, m);
+        List<Double> function = new ArrayList<>();
+        function.add((double) n);
+
+        int[] bounds = Workers.ranges(offsets, parallelism);
+        for (int t = 1; t <= maxIterations; t++) {
+            long[] from = current;
+            long[] to = next;
+            boolean[] dirty = changed;
+            boolean[] nextDirty = nextChanged;
+            double inverse = 1.0 / t;
+            List<double[]> partial = Workers.run(parallelism, worker -> {
+                double sum = 0;
+                double modified = 0;
+                for (int v = bounds[worker]; v < bounds[worker + 1]; v++) {
+                    int base = v * words;
+                    System.arraycopy(from, base, to, base, words);
+                    boolean touched = false;
+                    for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                        int u = neighbors[i];
+                        if (!dirty[u])
+                            continue; // counter of u is already merged in
+                        int other = u * words;
+                        for (int w = 0; w < words; w++) {
+                            long x = to[base + w];
+                            long merged = max(x, from[other + w]);
+                            if (merged != x) {
+                                to[base + w] = merged;
+                                touched = true;
+                            }
+                        }
+                    }
+                    nextDirty[v] = touched;
+                    if (touched) {
+                        double value = count(to, base, m);
+                        if (value > estimate[v]) {
+                            harmonic[v] += (value - estimate[v]) * inverse;
+                            estimate[v] = value;
+                        }
+                        modified++;
+                    }
+                    sum += estimate[v];
+                }
+                return new double[] {sum, modified};
+            });
+
+            double sum = 0;
+            double modified = 0;
+            for (double[] p : partial) {
+                sum += p[0];
+                modified += p[1];
+            }
+            current = to;
+            next = from;
+            changed = nextDirty;
+            nextChanged = dirty;
+            if (modified == 0)
+                break;
+            function.add(Math.max(sum, function.get(function.size() - 1)));
+        }
+
+        neighbourhood = function.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Adds node to counter at base: register by top log2m bits of hash,
+     * value - position of the first 1 bit in the rest
+     */
+    private void add(long[] registers, int base, int node) {
+        long hash = mix(node + seed);
+        int register = (int) (hash >>> (64 - log2m));
+        int value = Math.min(64 - log2m, Long.numberOfLeadingZeros(hash << log2m)) + 1;
+        int word = base + register / 8;
+        int shift = (register % 8) * 8;
+        long old = (registers[word] >>> shift) & 0xFF;
+        if (value > old)
+            registers[word] = registers[word] & ~(0xFFL << shift) | ((long) value << shift);
+    }
+
+    /**
+     * HyperLogLog estimate with linear counting for small cardinalities
+     */
+    private static double count(long[] registers, int base, int m) {
+        double sum = 0;
+        int zeros = 0;
+        for (int j = 0; j < m; j++) {
+            int value = (int) ((registers[base + j / 8] >>> ((j % 8) * 8)) & 0xFF);
+            sum += Math.scalb(1.0, -value);
+            if (value == 0)
+                zeros++;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0)
+            estimate = m * Math.log((double) m / zeros);
+        return estimate;
+    }
+
+    /**
+     * Byte-wise unsigned max of two longs
+     */
+    private static long max(long x, long y) {
+        // high bit of every byte is set where low 7 bits of x >= low 7 bits of y, no borrow crosses bytes
+        long lowGe = ((x | HIGH) - (y & ~HIGH)) & HIGH;
+        long xHigh = x & HIGH;
+        long yHigh = y & HIGH;
+        long ge = (xHigh & ~yHigh) | (~(xHigh ^ yHigh) & lowGe);
+        long mask = (ge >>> 7) * 0xFF;
+        return (x & mask) | (y & ~mask);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,157 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only undirected graph with nodes remapped to dense indexes 0..n-1
+ * Adjacency layout is up to implementation (heap arrays, memory mapped file, ...),
+ * BFS-based metrics here only walk it through NeighborCursor.
+ *
+ * Methods taking or returning a node use original node ids,
+ * methods with "index" in the name work with dense indexes.
+ */
+public abstract class IntGraph {
+
+    public abstract int nodesCount();
+
+    public abstract long edgesCount();
+
+    public abstract int degree(int index);
+
+    public abstract int nodeId(int index);
+
+    /**
+     * @return dense index of node or -1 if there is no such node
+     */
+    public abstract int indexOf(int node);
+
+    /**
+     * New cursor over neighbours, ascending by index
+     */
+    public abstract NeighborCursor cursor();
+
+    int indexOrThrow(int node) {
+        int index = indexOf(node);
+        if (index < 0)
+            throw new RuntimeException("No such node in graph");
+        return index;
+    }
+
+    /**
+     * BFS from source which leaves visited indexes in queue[0..size) in visiting order
+     * and their distances in dist. Unvisited entries of dist should be -1.
+     * @return count of visited nodes
+     */
+    int bfs(int source, int[] dist, int[] queue, NeighborCursor cursor) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        dist[source] = 0;
+        while (head < tail) {
+            int node = queue[head++];
+            int next = dist[node] + 1;
+            cursor.reset(node);
+            while (cursor.hasNext()) {
+                int neigh = cursor.next();
+                if (dist[neigh] < 0) {
+                    dist[neigh] = next;
+                    queue[tail++] = neigh;
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    static void reset(int[] dist, int[] queue, int size) {
+        for (int i = 0; i < size; i++)
+            dist[queue[i]] = -1;
+    }
+
+    int[] emptyDist() {
+        int[] dist = new int[nodesCount()];
+        Arrays.fill(dist, -1);
+        return dist;
+    }
+
+    /**
+     * Key - smallest node of connected component
+     * Value - size
+     * Complexity - O((N+M)/parallelism) - concurrent union-find, see Components
+     * @return {root node, size}
+     */
+    public Map<Integer, Integer> connectedComponents(boolean skipSingles) {
+        Components components = new Components(this);
+        int[] sizes = components.sizes();
+        Map<Integer, Integer> cc = new HashMap<>();
+        for (int v = 0; v < sizes.length; v++) {
+            if (sizes[v] > (skipSingles ? 1 : 0))
+                cc.put(nodeId(v), sizes[v]);
+        }
+
+        return cc;
+    }
+
+    /**
+     * Size of Largest Connected Component
+     * Complexity - O((N+M)/parallelism) - concurrent union-find, see Components
+     */
+    public int sizeLLC() {
+        return new Components(this).largestSize();
+    }
+
+    /**
+     * maximal shortest path length
+     * a node can have with any other node in the connected component
+     */
+    public int eccentricity(int node) {
+        int[] queue = new int[nodesCount()];
+        int[] dist = emptyDist();
+        int size = bfs(indexOrThrow(node), dist, queue, cursor());
+        return dist[queue[size - 1]];
+    }
+
+    /**
+     * Exact max of diameters of connected components
+     * Complexity - O(K*(N+M)) - K bounding BFS, usually a handful, see Eccentricities
+     */
+    public int diameter() {
+        return new Eccentricities(this).diameter();
+    }
+
+    /**
+     * The average shortest path length is the sum of path lengths d(u,v)
+     * between all pairs of nodes
+     * normalized by n*(n-1) where n is the number of nodes.
+     * Returns -1 if graph is not connected
+     * Complexity - O(N/64*(M+N*D)) - bit-parallel BFS, see MultiSourceBfs
+     */
+    public float avgShortestPathLength() {
+        int n = nodesCount();
+        if (n > sizeLLC())
+            return -1f;
+        if (n <= 1)
+            return 0;
+
+        long sum = new MultiSourceBfs(this).distanceSum();
+        return (float) ((double) sum / ((long) n * (n - 1)));
+    }
+
+    /**
+     * The assortativity coefficient is a Pearson correlation coefficient of some node
+     * property f between pairs of connected nodes
+     * @return - degree assortativity coefficient, see TopologySummary
+     */
+    public double degreeAssort() {
+        return TopologySummary.of(this).assortativity();
+    }
+
+    /**
+     * Counts, density, degree histogram, moments and assortativity in one parallel pass
+     */
+    public TopologySummary summary() {
+        return TopologySummary.of(this);
+    }
+}
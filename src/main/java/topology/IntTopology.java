@@ -0,0 +1,163 @@
+package topology;
+
+import utils.IntHashSet;
+import utils.IntIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Topology of undirected, unweighted graph on primitive ints
+ * Node id -> slot in IntIntHashMap, neighbours of slot in IntHashSet
+ * There is no boxing and no per-edge objects, so generation of large graphs
+ * doesn't spend its time in allocation and GC.
+ * Integer.MIN_VALUE can't be used as node id.
+ */
+public class IntTopology implements MutableTopology {
+
+    private final IntIntHashMap slots;
+    private IntHashSet[] adjacency;
+    private int[] freeSlots = new int[0];
+    private int freeCount = 0;
+    private int usedSlots = 0;
+
+    public IntTopology() {
+        this(16);
+    }
+
+    /**
+     * @param expectedNodes - initial capacity, to avoid rehashing while graph grows
+     */
+    public IntTopology(int expectedNodes) {
+        slots = new IntIntHashMap(expectedNodes);
+        adjacency = new IntHashSet[Math.max(4, expectedNodes)];
+    }
+
+    private int slotOrCreate(int node) {
+        int slot = slots.get(node, -1);
+        if (slot >= 0)
+            return slot;
+
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (usedSlots == adjacency.length)
+                adjacency = Arrays.copyOf(adjacency, adjacency.length * 2);
+            slot = usedSlots++;
+        }
+        adjacency[slot] = new IntHashSet();
+        slots.put(node, slot);
+        return slot;
+    }
+
+    private IntHashSet neighs(int node) {
+        int slot = slots.get(node, -1);
+        if (slot < 0)
+            throw new RuntimeException("No such node in graph");
+        return adjacency[slot];
+    }
+
+    @Override
+    public void addEdge(int node1, int node2) {
+        int slot1 = slotOrCreate(node1);
+        int slot2 = slotOrCreate(node2);
+        adjacency[slot1].add(node2);
+        adjacency[slot2].add(node1);
+    }
+
+    @Override
+    public void addNode(int node) {
+        slotOrCreate(node);
+    }
+
+    @Override
+    public void removeEdge(int node1, int node2) {
+        neighs(node1).remove(node2);
+        neighs(node2).remove(node1);
+    }
+
+    @Override
+    public void removeNode(int node) {
+        int slot = slots.get(node, -1);
+        if (slot < 0)
+            throw new RuntimeException("No such node in graph");
+        IntHashSet neighs = adjacency[slot];
+        neighs.forEach(neigh -> {
+            if (neigh != node)
+                neighs(neigh).remove(node);
+        });
+        adjacency[slot] = null;
+        slots.remove(node);
+
+        if (freeCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(4, freeCount * 2));
+        freeSlots[freeCount++] = slot;
+    }
+
+    @Override
+    public boolean hasNode(int node) {
+        return slots.containsKey(node);
+    }
+
+    @Override
+    public boolean hasEdge(int node1, int node2) {
+        int slot = slots.get(node1, -1);
+        return slot >= 0 && adjacency[slot].contains(node2);
+    }
+
+    @Override
+    public int degree(int node) {
+        return neighs(node).size();
+    }
+
+    @Override
+    public int[] neighbors(int node) {
+        return neighs(node).toArray();
+    }
+
+    @Override
+    public int nodesCount() {
+        return slots.size();
+    }
+
+    /**
+     * CSR snapshot built straight from primitive sets, without boxed intermediate
+     * Complexity - O(N*log(N) + M*log(M))
+     */
+    @Override
+    public CompactTopology freeze() {
+        int[] ids = slots.keys();
+        Arrays.sort(ids);
+        int n = ids.length;
+
+        boolean identity = true;
+        for (int i = 0; i < n && identity; i++)
+            identity = ids[i] == i;
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] = offsets[i] + neighs(ids[i]).size();
+
+        int[] neighbors = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int[] neighs = neighs(ids[i]).toArray();
+            for (int j = 0; j < neighs.length; j++)
+                neighbors[offsets[i] + j] = identity ? neighs[j] : Arrays.binarySearch(ids, neighs[j]);
+            Arrays.sort(neighbors, offsets[i], offsets[i + 1]);
+        }
+
+        return new CompactTopology(identity ? null : ids, offsets, neighbors);
+    }
+
+    /**
+     * Boxed copy, for code which works with Topology as a Map
+     */
+    public Topology toTopology() {
+        Topology tp = new Topology();
+        for (int node : slots.keys()) {
+            tp.addNode(node);
+            neighs(node).forEach(neigh -> tp.addEdge(node, neigh));
+        }
+
+        return tp;
+    }
+}
@@ -0,0 +1,318 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multilevel modularity optimization (Blondel et al. "Fast unfolding of communities in large networks")
+ * Level: nodes move to the neighbour community with the largest modularity gain
+ * k_i,in(C) - gamma * k_i * tot(C) / 2m, using per-community degree sums tot(C),
+ * until no move improves modularity. Then every community becomes one weighted node
+ * (inner edges become a self loop) and the next level runs on that coarse graph.
+ *
+ * Local moving: every pass is one parallel run, each worker walks its own range of nodes
+ * and applies a move as soon as it is found. Community sums tot(C) are shared doubles
+ * updated by compare-and-set, so every decision sees the moves already made by all workers,
+ * a neighbour moved by another worker at the same moment may be seen late and is
+ * corrected on the next pass. With parallelism 1 this is the sequential algorithm.
+ *
+ * Coarse levels are weighted CSR graphs, MetaNode keeps only node sets and inner edge counts,
+ * so it is used for the final partition only (see Topology.findCommunities).
+ *
+ * Complexity - O(M) per pass, a few passes per level, levels shrink quickly
+ */
+public final class Louvain {
+
+    private static final int MAX_PASSES = 100;
+    private static final double MIN_GAIN = 1e-12;
+
+    private final CompactTopology graph;
+    private double resolution = 1;
+    private int parallelism = Workers.defaultParallelism();
+
+    private int[] communities;
+    private int levels;
+
+    public Louvain(CompactTopology graph) {
+        this.graph = graph;
+    }
+
+    public Louvain resolution(double gamma) {
+        this.resolution = gamma;
+        return this;
+    }
+
+    public Louvain parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * @return community 0..count-1 of every dense index
+     */
+    public int[] communities() {
+        run();
+        return communities;
+    }
+
+    public int levels() {
+        run();
+        return levels;
+    }
+
+    /**
+     * Modularity of found partition with the same resolution
+     */
+    public double modularity() {
+        run();
+        return Level.of(graph).modularity(communities, resolution);
+    }
+
+    private void run() {
+        if (communities != null)
+            return;
+
+        int n = graph.nodesCount();
+        int[] assignment = new int[n];
+        for (int v = 0; v < n; v++)
+            assignment[v] = v;
+
+        Level level = Level.of(graph);
+        while (true) {
+            int[] comm = moveNodes(level);
+            int count = renumber(comm);
+            if (count == level.size())
+                break;
+            for (int v = 0; v < n; v++)
+                assignment[v] = comm[assignment[v]];
+            level = level.aggregate(comm, count);
+            levels++;
+        }
+
+        renumber(assignment);
+        communities = assignment;
+    }
+
+    /**
+     * Local moving phase on one level
+     * @return community of every node of the level
+     */
+    private int[] moveNodes(Level level) {
+        int n = level.size();
+        int[] comm = new int[n];
+        AtomicLongArray tot = new AtomicLongArray(n);
+        for (int v = 0; v < n; v++) {
+            comm[v] = v;
+            tot.set(v, Double.doubleToLongBits(level.strength[v]));
+        }
+
+        int workers = Math.min(parallelism, Math.max(1, n / 256));
+        Workspace[] workspaces = new Workspace[workers];
+        for (int i = 0; i < workers; i++)
+            workspaces[i] = new Workspace(n);
+        int[] bounds = Workers.ranges(level.offsets, workers);
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            List<Boolean> moved = Workers.run(workers, worker -> {
+                Workspace workspace = workspaces[worker];
+                boolean any = false;
+                for (int v = bounds[worker]; v < bounds[worker + 1]; v++) {
+                    int target = workspace.bestCommunity(level, v, comm, tot, resolution);
+                    if (target == comm[v])
+                        continue;
+                    add(tot, comm[v], -level.strength[v]);
+                    add(tot, target, level.strength[v]);
+                    comm[v] = target;
+                    any = true;
+                }
+                return any;
+            });
+            if (!moved.contains(true))
+                break;
+        }
+
+        return comm;
+    }
+
+    private static void add(AtomicLongArray values, int i, double delta) {
+        long bits;
+        do {
+            bits = values.get(i);
+        } while (!values.compareAndSet(i, bits, Double.doubleToLongBits(Double.longBitsToDouble(bits) + delta)));
+    }
+
+    /**
+     * Renumbers labels to 0..count-1 in order of first appearance
+     * @return count of distinct labels
+     */
+    private static int renumber(int[] labels) {
+        int[] map = new int[labels.length];
+        Arrays.fill(map, -1);
+        int count = 0;
+        for (int v = 0; v < labels.length; v++) {
+            if (map[labels[v]] < 0)
+                map[labels[v]] = count++;
+            labels[v] = map[labels[v]];
+        }
+        return count;
+    }
+
+    /**
+     * Per worker sums of edge weights from a node to neighbour communities
+     */
+    private static final class Workspace {
+        final double[] weight;
+        final int[] touched;
+
+        Workspace(int n) {
+            weight = new double[n];
+            touched = new int[n];
+        }
+
+        int bestCommunity(Level level, int v, int[] comm, AtomicLongArray tot, double resolution) {
+            int count = 0;
+            for (int i = level.offsets[v]; i < level.offsets[v + 1]; i++) {
+                int c = comm[level.neighbors[i]];
+                if (weight[c] == 0)
+                    touched[count++] = c;
+                weight[c] += level.weights[i];
+            }
+
+            int own = comm[v];
+            double k = level.strength[v];
+            double scale = resolution * k / level.totalWeight;
+            double stay = weight[own] - scale * (Double.longBitsToDouble(tot.get(own)) - k);
+            int best = own;
+            double bestGain = 0;
+            for (int j = 0; j < count; j++) {
+                int c = touched[j];
+                if (c != own) {
+                    double gain = weight[c] - scale * Double.longBitsToDouble(tot.get(c)) - stay;
+                    if (gain > bestGain + MIN_GAIN || (gain > MIN_GAIN && gain >= bestGain - MIN_GAIN && c < best)) {
+                        best = c;
+                        bestGain = gain;
+                    }
+                }
+                weight[c] = 0;
+            }
+            weight[own] = 0;
+
+            return best;
+        }
+    }
+
+    /**
+     * Weighted graph of one level, adjacency has no self loops,
+     * inner weight of a node (both directions) is in loops
+     */
+    private static final class Level {
+        final int[] offsets;
+        final int[] neighbors;
+        final double[] weights;
+        final double[] loops;
+        final double[] strength; // sum of adjacency weights + loops
+        final double totalWeight; // 2m
+
+        Level(int[] offsets, int[] neighbors, double[] weights, double[] loops) {
+            this.offsets = offsets;
+            this.neighbors = neighbors;
+            this.weights = weights;
+            this.loops = loops;
+            int n = offsets.length - 1;
+            strength = new double[n];
+            double total = 0;
+            for (int v = 0; v < n; v++) {
+                double s = loops[v];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++)
+                    s += weights[i];
+                strength[v] = s;
+                total += s;
+            }
+            totalWeight = total;
+        }
+
+        static Level of(CompactTopology graph) {
+            double[] weights = new double[graph.degreeSum()];
+            Arrays.fill(weights, 1);
+            return new Level(graph.offsets(), graph.neighbors(), weights, new double[graph.nodesCount()]);
+        }
+
+        int size() {
+            return offsets.length - 1;
+        }
+
+        /**
+         * Coarse graph where community c of comm is node c
+         */
+        Level aggregate(int[] comm, int count) {
+            int n = size();
+            // nodes grouped by community
+            int[] start = new int[count + 1];
+            for (int v = 0; v < n; v++)
+                start[comm[v] + 1]++;
+            for (int c = 0; c < count; c++)
+                start[c + 1] += start[c];
+            int[] members = new int[n];
+            int[] next = start.clone();
+            for (int v = 0; v < n; v++)
+                members[next[comm[v]]++] = v;
+
+            double[] coarseLoops = new double[count];
+            double[] weight = new double[count];
+            int[] touched = new int[count];
+            int[] coarseOffsets = new int[count + 1];
+            int[] coarseNeighbors = new int[neighbors.length];
+            double[] coarseWeights = new double[neighbors.length];
+            int pos = 0;
+            for (int c = 0; c < count; c++) {
+                int touchedCount = 0;
+                for (int k = start[c]; k < start[c + 1]; k++) {
+                    int v = members[k];
+                    coarseLoops[c] += loops[v];
+                    for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                        int d = comm[neighbors[i]];
+                        if (d == c) {
+                            coarseLoops[c] += weights[i];
+                            continue;
+                        }
+                        if (weight[d] == 0)
+                            touched[touchedCount++] = d;
+                        weight[d] += weights[i];
+                    }
+                }
+                Arrays.sort(touched, 0, touchedCount);
+                for (int j = 0; j < touchedCount; j++) {
+                    coarseNeighbors[pos] = touched[j];
+                    coarseWeights[pos++] = weight[touched[j]];
+                    weight[touched[j]] = 0;
+                }
+                coarseOffsets[c + 1] = pos;
+            }
+
+            return new Level(coarseOffsets, Arrays.copyOf(coarseNeighbors, pos), Arrays.copyOf(coarseWeights, pos),
+                    coarseLoops);
+        }
+
+        double modularity(int[] comm, double resolution) {
+            int n = size();
+            double[] inner = new double[n];
+            double[] tot = new double[n];
+            for (int v = 0; v < n; v++) {
+                inner[comm[v]] += loops[v];
+                tot[comm[v]] += strength[v];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (comm[neighbors[i]] == comm[v])
+                        inner[comm[v]] += weights[i];
+                }
+            }
+
+            double q = 0;
+            for (int c = 0; c < n; c++) {
+                double share = tot[c] / totalWeight;
+                q += inner[c] / totalWeight - resolution * share * share;
+            }
+            return q;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package topology;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only CSR graph backed by a memory mapped binary file.
+ * Adjacency is read straight from the page cache: no parsing and no heap copies,
+ * so several JVMs opening the same file share one copy of it.
+ *
+ * File layout, little endian:
+ * int magic "NWKJ", int version, int flags, int nodes,
+ * long neighbour entries (2*edges), long CRC32C of everything after the header,
+ * int[nodes] ids (only if flags has HAS_IDS), int[nodes+1] offsets, int[2*edges] neighbours
+ */
+public final class MappedTopology extends IntGraph {
+
+    static final int MAGIC = 0x4A4B574E; // "NWKJ" in little endian
+    static final int VERSION = 1;
+    static final int HAS_IDS = 1;
+    static final int HEADER_BYTES = 32;
+
+    private final MappedInts ids; // null if ids are exactly 0..n-1
+    private final MappedInts offsets;
+    private final MappedInts neighbors;
+    private final int nodes;
+
+    private MappedTopology(MappedInts ids, MappedInts offsets, MappedInts neighbors, int nodes) {
+        this.ids = ids;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.nodes = nodes;
+    }
+
+    public static void write(Topology tp, Path path) throws IOException {
+        write(tp.freeze(), path);
+    }
+
+    /**
+     * Writes graph in the layout described in class doc, neighbours ascending by index
+     */
+    public static void write(IntGraph graph, Path path) throws IOException {
+        int n = graph.nodesCount();
+        boolean hasIds = false;
+        for (int v = 0; v < n && !hasIds; v++)
+            hasIds = graph.nodeId(v) != v;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            IntWriter out = new IntWriter(channel);
+            if (hasIds) {
+                for (int v = 0; v < n; v++)
+                    out.put(graph.nodeId(v));
+            }
+            long offset = 0;
+            out.put(0);
+            for (int v = 0; v < n; v++) {
+                offset += graph.degree(v);
+                if (offset > Integer.MAX_VALUE)
+                    throw new RuntimeException("Graph is too large for int offsets");
+                out.put((int) offset);
+            }
+            NeighborCursor cursor = graph.cursor();
+            for (int v = 0; v < n; v++) {
+                cursor.reset(v);
+                while (cursor.hasNext())
+                    out.put(cursor.next());
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(hasIds ? HAS_IDS : 0).putInt(n)
+                    .putLong(offset).putLong(out.crc.getValue()).flip();
+            channel.write(header, 0);
+        }
+    }
+
+    public static MappedTopology open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /**
+     * @param verify - compare CRC32C of the file with the header, this reads the whole file once
+     */
+    public static MappedTopology open(Path path, boolean verify) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES)
+                throw new RuntimeException("Not a graph file: " + path);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC)
+                throw new RuntimeException("Not a graph file: " + path);
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new RuntimeException("Unsupported graph file version " + version);
+            boolean hasIds = (header.getInt() & HAS_IDS) != 0;
+            int n = header.getInt();
+            long entries = header.getLong();
+            long checksum = header.getLong();
+
+            long idsBytes = hasIds ? 4L * n : 0;
+            long expected = HEADER_BYTES + idsBytes + 4L * (n + 1) + 4L * entries;
+            if (channel.size() != expected)
+                throw new RuntimeException("Graph file is truncated or corrupted: " + path);
+
+            MappedInts ids = hasIds ? new MappedInts(channel, HEADER_BYTES, n) : null;
+            MappedInts offsets = new MappedInts(channel, HEADER_BYTES + idsBytes, n + 1);
+            MappedInts neighbors = new MappedInts(channel, HEADER_BYTES + idsBytes + 4L * (n + 1), entries);
+
+            if (verify) {
+                CRC32C crc = new CRC32C();
+                if (ids != null)
+                    ids.update(crc);
+                offsets.update(crc);
+                neighbors.update(crc);
+                if (crc.getValue() != checksum)
+                    throw new RuntimeException("Graph file checksum mismatch: " + path);
+            }
+
+            return new MappedTopology(ids, offsets, neighbors, n);
+        }
+    }
+
+    @Override
+    public int nodesCount() {
+        return nodes;
+    }
+
+    @Override
+    public long edgesCount() {
+        return neighbors.length / 2;
+    }
+
+    @Override
+    public int degree(int index) {
+        return offsets.get(index + 1) - offsets.get(index);
+    }
+
+    @Override
+    public int nodeId(int index) {
+        return ids == null ? index : ids.get(index);
+    }
+
+    @Override
+    public int indexOf(int node) {
+        if (ids == null)
+            return node >= 0 && node < nodes ? node : -1;
+        int low = 0;
+        int high = nodes - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = ids.get(mid);
+            if (id < node)
+                low = mid + 1;
+            else if (id > node)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    @Override
+    public NeighborCursor cursor() {
+        return new NeighborCursor() {
+            int pos;
+            int end;
+
+            @Override
+            public NeighborCursor reset(int index) {
+                pos = offsets.get(index);
+                end = offsets.get(index + 1);
+                return this;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return pos < end;
+            }
+
+            @Override
+            public int next() {
+                return neighbors.get(pos++);
+            }
+        };
+    }
+
+    /**
+     * Heap copy of the graph, for algorithms which need plain arrays
+     */
+    public CompactTopology toCompact() {
+        int[] idsCopy = null;
+        if (ids != null) {
+            idsCopy = new int[nodes];
+            for (int v = 0; v < nodes; v++)
+                idsCopy[v] = ids.get(v);
+        }
+        int[] offsetsCopy = new int[nodes + 1];
+        for (int v = 0; v <= nodes; v++)
+            offsetsCopy[v] = offsets.get(v);
+        int[] neighborsCopy = new int[(int) neighbors.length];
+        for (int i = 0; i < neighborsCopy.length; i++)
+            neighborsCopy[i] = neighbors.get(i);
+
+        return new CompactTopology(idsCopy, offsetsCopy, neighborsCopy);
+    }
+
+    /**
+     * int array over a file region, split into several mappings
+     * cause one MappedByteBuffer can't be larger than 2GB
+     */
+    private static final class MappedInts {
+        static final int CHUNK_BITS = 28; // 1GB per mapping
+        static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+        final IntBuffer[] chunks;
+        final MappedByteBuffer[] bytes;
+        final long length;
+
+        MappedInts(FileChannel channel, long position, long length) throws IOException {
+            this.length = length;
+            int count = (int) ((length + CHUNK_MASK) >>> CHUNK_BITS);
+            chunks = new IntBuffer[count];
+            bytes = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long size = Math.min(1L << CHUNK_BITS, length - ((long) i << CHUNK_BITS));
+                bytes[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        position + 4 * ((long) i << CHUNK_BITS), 4 * size);
+                bytes[i].order(ByteOrder.LITTLE_ENDIAN);
+                chunks[i] = bytes[i].asIntBuffer();
+            }
+        }
+
+        int get(long index) {
+            return chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+        }
+
+        void update(CRC32C crc) {
+            for (MappedByteBuffer chunk : bytes)
+                crc.update(chunk.duplicate());
+        }
+    }
+
+    /**
+     * Buffered little endian int output which keeps CRC32C of written bytes
+     */
+    private static final class IntWriter {
+        final FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        final CRC32C crc = new CRC32C();
+
+        IntWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            channel.position(HEADER_BYTES);
+        }
+
+        void put(int value) throws IOException {
+            if (!buffer.hasRemaining())
+                flush();
+            buffer.putInt(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
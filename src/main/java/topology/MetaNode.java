@@ -1,5 +1,8 @@
 package topology;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -15,4 +18,38 @@ public class MetaNode {
         this.innerNodes = innerNodes;
         this.innerEdgesCount = innerEdgesCount;
     }
+
+    public Set<Integer> innerNodes() {
+        return innerNodes;
+    }
+
+    public int innerEdgesCount() {
+        return innerEdgesCount;
+    }
+
+    /**
+     * Groups nodes by label, key - smallest node id of the group
+     * @param labels - group of every dense index
+     */
+    static Map<Integer, MetaNode> of(CompactTopology ct, int[] labels) {
+        int[] offsets = ct.offsets();
+        int[] neighbors = ct.neighbors();
+        Map<Integer, MetaNode> byLabel = new HashMap<>();
+        Map<Integer, MetaNode> result = new HashMap<>();
+        for (int v = 0; v < labels.length; v++) {
+            MetaNode metaNode = byLabel.get(labels[v]);
+            if (metaNode == null) {
+                metaNode = new MetaNode(new HashSet<>(), 0);
+                byLabel.put(labels[v], metaNode);
+                result.put(ct.nodeId(v), metaNode); // ids ascend with indexes
+            }
+            metaNode.innerNodes.add(ct.nodeId(v));
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (neighbors[i] > v && labels[neighbors[i]] == labels[v])
+                    metaNode.innerEdgesCount++;
+            }
+        }
+
+        return result;
+    }
 }
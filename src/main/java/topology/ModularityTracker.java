@@ -0,0 +1,168 @@
+package topology;
+
+/**
+ * Node to community assignment with cached modularity terms
+ * Q = sum over communities of inner(c)/m - (degreeSum(c)/2m)^2
+ * Inner edges and degree sums of every community are kept together with the running sums
+ * of inner(c) and degreeSum(c)^2, all exact in long, so a move costs O(deg)
+ * and modularity of the whole partition is O(1).
+ *
+ * Communities are labels 0..n-1, a label with no nodes is an empty community.
+ */
+public final class ModularityTracker {
+
+    private final CompactTopology graph;
+    private final int[] community;
+    private final long[] inner;
+    private final long[] degreeSum;
+    private final int[] members;
+    private final long edges;
+    private long innerSum;
+    private long degreeSquares;
+    private int communitiesCount;
+
+    /**
+     * Every node in its own community
+     */
+    public ModularityTracker(CompactTopology graph) {
+        this(graph, identity(graph.nodesCount()));
+    }
+
+    /**
+     * @param labels - community 0..n-1 of every dense index, copied
+     */
+    public ModularityTracker(CompactTopology graph, int[] labels) {
+        int n = graph.nodesCount();
+        if (labels.length != n)
+            throw new RuntimeException("Expected " + n + " labels");
+        this.graph = graph;
+        community = labels.clone();
+        inner = new long[n];
+        degreeSum = new long[n];
+        members = new int[n];
+        edges = graph.edgesCount();
+
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        for (int v = 0; v < n; v++) {
+            int c = community[v];
+            if (c < 0 || c >= n)
+                throw new RuntimeException("Community label " + c + " is out of 0.." + (n - 1));
+            if (members[c]++ == 0)
+                communitiesCount++;
+            degreeSum[c] += graph.degree(v);
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (neighbors[i] > v && community[neighbors[i]] == c)
+                    inner[c]++;
+            }
+        }
+        for (int c = 0; c < n; c++) {
+            innerSum += inner[c];
+            degreeSquares += degreeSum[c] * degreeSum[c];
+        }
+    }
+
+    private static int[] identity(int n) {
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++)
+            labels[v] = v;
+        return labels;
+    }
+
+    public int community(int index) {
+        return community[index];
+    }
+
+    public long innerEdges(int community) {
+        return inner[community];
+    }
+
+    public long degreeSum(int community) {
+        return degreeSum[community];
+    }
+
+    public int size(int community) {
+        return members[community];
+    }
+
+    /**
+     * Count of non-empty communities
+     */
+    public int communitiesCount() {
+        return communitiesCount;
+    }
+
+    /**
+     * Complexity - O(1)
+     */
+    public double modularity() {
+        if (edges == 0)
+            return 0;
+        double twoM = 2.0 * edges;
+        return innerSum / (double) edges - degreeSquares / (twoM * twoM);
+    }
+
+    /**
+     * Modularity change if node moved to target, nothing is changed
+     * Complexity - O(deg)
+     */
+    public double gain(int index, int target) {
+        int own = community[index];
+        if (own == target || edges == 0)
+            return 0;
+        long toOwn = edgesTo(index, own);
+        long toTarget = edgesTo(index, target);
+        long d = graph.degree(index);
+        double twoM = 2.0 * edges;
+        // degreeSum changes by -d in own and +d in target
+        long squares = (degreeSum[own] - d) * (degreeSum[own] - d) - degreeSum[own] * degreeSum[own]
+                + (degreeSum[target] + d) * (degreeSum[target] + d) - degreeSum[target] * degreeSum[target];
+        return (toTarget - toOwn) / (double) edges - squares / (twoM * twoM);
+    }
+
+    /**
+     * Moves node to target community
+     * Complexity - O(deg)
+     */
+    public void move(int index, int target) {
+        int own = community[index];
+        if (own == target)
+            return;
+        long toOwn = edgesTo(index, own);
+        long toTarget = edgesTo(index, target);
+        long d = graph.degree(index);
+
+        degreeSquares -= degreeSum[own] * degreeSum[own] + degreeSum[target] * degreeSum[target];
+        degreeSum[own] -= d;
+        degreeSum[target] += d;
+        degreeSquares += degreeSum[own] * degreeSum[own] + degreeSum[target] * degreeSum[target];
+
+        inner[own] -= toOwn;
+        inner[target] += toTarget;
+        innerSum += toTarget - toOwn;
+
+        if (--members[own] == 0)
+            communitiesCount--;
+        if (members[target]++ == 0)
+            communitiesCount++;
+        community[index] = target;
+    }
+
+    /**
+     * @return copy of current assignment
+     */
+    public int[] communities() {
+        return community.clone();
+    }
+
+    private long edgesTo(int index, int c) {
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        long count = 0;
+        for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+            if (neighbors[i] != index && community[neighbors[i]] == c)
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,177 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All-pairs distance sums by bit-parallel multi-source BFS (Then et al. "The More the Merrier")
+ * 64 sources share one traversal, bit i of seen[v] / visit[v] tells that source i has reached v.
+ * One scan of adjacency per level advances all 64 frontiers with a few word operations.
+ * Distances are symmetric, so every node accumulates its own farness and harmonic sum
+ * from the batches that reach it. Batches are shared between workers,
+ * each worker has its own workspace and accumulators, accumulators are summed at the end.
+ *
+ * Complexity - O(N/64 * (M + N*D)/parallelism), D - diameter
+ */
+public final class MultiSourceBfs {
+
+    private static final int BATCH = 64;
+
+    private final IntGraph graph;
+    private final int parallelism;
+
+    private long[] farness;
+    private double[] harmonic;
+    private int[] reached;
+
+    public MultiSourceBfs(IntGraph graph) {
+        this(graph, Workers.defaultParallelism());
+    }
+
+    public MultiSourceBfs(IntGraph graph, int parallelism) {
+        this.graph = graph;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @return sum of distances from every dense index to nodes of its component
+     */
+    public long[] farness() {
+        run();
+        return farness;
+    }
+
+    /**
+     * Sum of d(u,v) over all ordered pairs of connected nodes
+     */
+    public long distanceSum() {
+        long sum = 0;
+        for (long f : farness())
+            sum += f;
+        return sum;
+    }
+
+    /**
+     * Closeness with Wasserman-Faust scaling for disconnected graphs:
+     * (r-1)/farness * (r-1)/(n-1), r - size of node's component
+     * @return closeness of every dense index
+     */
+    public double[] closeness() {
+        run();
+        int n = graph.nodesCount();
+        double[] closeness = new double[n];
+        for (int v = 0; v < n; v++) {
+            if (farness[v] > 0) {
+                double others = reached[v] - 1;
+                closeness[v] = others / farness[v] * others / (n - 1);
+            }
+        }
+        return closeness;
+    }
+
+    /**
+     * Sum of 1/d(v,u) over all u != v, not normalized
+     * @return harmonic centrality of every dense index
+     */
+    public double[] harmonic() {
+        run();
+        return harmonic;
+    }
+
+    private void run() {
+        if (farness != null)
+            return;
+
+        int n = graph.nodesCount();
+        int batches = (n + BATCH - 1) / BATCH;
+        AtomicInteger nextBatch = new AtomicInteger();
+        List<Accumulator> partial = Workers.run(Math.min(parallelism, Math.max(1, batches)), worker -> {
+            Accumulator acc = new Accumulator(n);
+            for (int b = nextBatch.getAndIncrement(); b < batches; b = nextBatch.getAndIncrement())
+                acc.traverse(b * BATCH, Math.min(n, (b + 1) * BATCH));
+            return acc;
+        });
+
+        farness = partial.get(0).farness;
+        harmonic = partial.get(0).harmonic;
+        reached = partial.get(0).reached;
+        for (int i = 1; i < partial.size(); i++) {
+            Accumulator acc = partial.get(i);
+            for (int v = 0; v < n; v++) {
+                farness[v] += acc.farness[v];
+                harmonic[v] += acc.harmonic[v];
+                reached[v] += acc.reached[v];
+            }
+        }
+    }
+
+    /**
+     * Per worker workspace and sums
+     */
+    private final class Accumulator {
+        final long[] farness;
+        final double[] harmonic;
+        final int[] reached;
+        final long[] seen;
+        long[] visit;
+        long[] visitNext;
+        final NeighborCursor cursor = graph.cursor();
+
+        Accumulator(int n) {
+            farness = new long[n];
+            harmonic = new double[n];
+            reached = new int[n];
+            seen = new long[n];
+            visit = new long[n];
+            visitNext = new long[n];
+        }
+
+        /**
+         * BFS from sources [from, to) at once, leaves workspace cleared
+         */
+        void traverse(int from, int to) {
+            int n = seen.length;
+            Arrays.fill(seen, 0);
+            for (int s = from; s < to; s++) {
+                long bit = 1L << (s - from);
+                seen[s] |= bit;
+                visit[s] |= bit;
+                reached[s]++;
+            }
+
+            boolean active = true;
+            for (int level = 1; active; level++) {
+                for (int v = 0; v < n; v++) {
+                    long bits = visit[v];
+                    if (bits == 0)
+                        continue;
+                    cursor.reset(v);
+                    while (cursor.hasNext()) {
+                        int u = cursor.next();
+                        visitNext[u] |= bits & ~seen[u];
+                    }
+                }
+
+                active = false;
+                double inverse = 1.0 / level;
+                for (int u = 0; u < n; u++) {
+                    visit[u] = 0;
+                    long bits = visitNext[u];
+                    if (bits == 0)
+                        continue;
+                    seen[u] |= bits;
+                    int count = Long.bitCount(bits);
+                    farness[u] += (long) level * count;
+                    harmonic[u] += count * inverse;
+                    reached[u] += count;
+                    active = true;
+                }
+
+                long[] swap = visit;
+                visit = visitNext;
+                visitNext = swap;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package topology;
+
+/**
+ * Mutation API of undirected, unweighted graph shared by adjacency backends
+ * Topology - boxed HashMap of HashSets, the default
+ * IntTopology - primitive open addressing maps, for generation of large graphs
+ */
+public interface MutableTopology {
+
+    void addEdge(int node1, int node2);
+
+    void addNode(int node);
+
+    void removeEdge(int node1, int node2);
+
+    void removeNode(int node);
+
+    boolean hasNode(int node);
+
+    boolean hasEdge(int node1, int node2);
+
+    int degree(int node);
+
+    /**
+     * Copy of neighbours of the node in arbitrary order
+     */
+    int[] neighbors(int node);
+
+    int nodesCount();
+
+    /**
+     * Immutable CSR snapshot for read-only analytics
+     */
+    CompactTopology freeze();
+}
@@ -0,0 +1,17 @@
+package topology;
+
+/**
+ * Reusable iterator over neighbours of one node of IntGraph, works with dense indexes
+ * Not thread safe, each thread should take its own cursor from IntGraph.cursor()
+ */
+public interface NeighborCursor {
+
+    /**
+     * Position cursor before the first neighbour of the node
+     */
+    NeighborCursor reset(int index);
+
+    boolean hasNext();
+
+    int next();
+}
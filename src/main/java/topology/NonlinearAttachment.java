@@ -0,0 +1,139 @@
+package topology;
+
+import utils.FenwickTree;
+
+import java.util.SplittableRandom;
+
+/**
+ * Preferential attachment with arbitrary kernel: start graph is complete, every next node
+ * draws edges to older nodes with probability proportional to kernel weight f(node, degree).
+ * Weights are kept in a FenwickTree, so a draw and a change of degree are O(log N).
+ * Targets of one node are distinct: a chosen node is taken out of the tree
+ * until all draws of the node are done, then weights of the node and its targets are updated.
+ * If no older node has positive weight the target is uniform among them.
+ *
+ * Complexity - O((N+M)*log(N))
+ */
+public final class NonlinearAttachment {
+
+    private final int nodesCount;
+    private final AttachmentKernel kernel;
+    private int minEdges = 1;
+    private int maxEdges = 2; // excluded
+    private int startGraphSize = 2;
+    private long seed = new SplittableRandom().nextLong();
+
+    public NonlinearAttachment(int nodesCount, AttachmentKernel kernel) {
+        if (nodesCount < 0)
+            throw new RuntimeException("Expected nodesCount >= 0");
+        this.nodesCount = nodesCount;
+        this.kernel = kernel;
+    }
+
+    /**
+     * Every new node draws mEdges edges
+     */
+    public NonlinearAttachment edgesPerNode(int mEdges) {
+        return edgesPerNode(mEdges, mEdges + 1);
+    }
+
+    /**
+     * Every new node draws uniform in [min, max) edges
+     */
+    public NonlinearAttachment edgesPerNode(int min, int max) {
+        if (min < 0 || max <= min)
+            throw new RuntimeException("Expected 0 <= min < max");
+        this.minEdges = min;
+        this.maxEdges = max;
+        return this;
+    }
+
+    /**
+     * Size of complete start graph, nodes 0..startGraphSize-1
+     */
+    public NonlinearAttachment startGraphSize(int startGraphSize) {
+        this.startGraphSize = Math.max(0, startGraphSize);
+        return this;
+    }
+
+    /**
+     * The same seed gives the same graph
+     */
+    public NonlinearAttachment seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public EdgeList edges() {
+        SplittableRandom random = new SplittableRandom(seed);
+        int n0 = Math.min(nodesCount, startGraphSize);
+        EdgeList edges = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8,
+                (long) n0 * (n0 - 1) / 2 + (long) (nodesCount - n0) * (minEdges + maxEdges) / 2));
+        int[] degree = new int[nodesCount];
+        FenwickTree weights = new FenwickTree(nodesCount);
+        int positive = 0; // nodes with weight > 0, the tree total alone may keep rounding leftovers
+
+        for (int v = 1; v < n0; v++) {
+            for (int u = 0; u < v; u++)
+                edges.add(v, u);
+        }
+        for (int v = 0; v < n0; v++) {
+            degree[v] = n0 - 1;
+            positive += update(weights, v, degree[v]);
+        }
+
+        int[] targets = new int[maxEdges];
+        for (int v = n0; v < nodesCount; v++) {
+            int draws = Math.min(v, random.nextInt(minEdges, maxEdges));
+            int chosen = 0;
+            for (int j = 0; j < draws; j++) {
+                int target;
+                if (positive > 0) {
+                    do {
+                        target = weights.find(random.nextDouble() * weights.total());
+                    } while (weights.get(target) == 0);
+                    positive--;
+                    weights.set(target, 0);
+                } else {
+                    target = random.nextInt(v);
+                    if (contains(targets, chosen, target))
+                        continue;
+                }
+                targets[chosen++] = target;
+            }
+
+            for (int j = 0; j < chosen; j++) {
+                edges.add(v, targets[j]);
+                degree[targets[j]]++;
+            }
+            degree[v] = chosen;
+            for (int j = 0; j < chosen; j++)
+                positive += update(weights, targets[j], degree[targets[j]]);
+            positive += update(weights, v, degree[v]);
+        }
+
+        return edges;
+    }
+
+    public CompactTopology toCompact() {
+        return edges().toCompact(nodesCount);
+    }
+
+    /**
+     * @return change of count of nodes with positive weight
+     */
+    private int update(FenwickTree weights, int node, int degree) {
+        double old = weights.get(node);
+        double weight = kernel.weight(node, degree);
+        weights.set(node, weight);
+        return (weight > 0 ? 1 : 0) - (old > 0 ? 1 : 0);
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,209 @@
+package topology;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest paths by bidirectional BFS.
+ * Each step expands one level of the side whose frontier has fewer edges to scan.
+ * A side switches to a bottom-up step (unvisited nodes look for a parent in the frontier)
+ * when its frontier gets heavier than the unexplored part of the graph, and back
+ * when the frontier shrinks (Beamer, Asanovic, Patterson "Direction-optimizing BFS").
+ * Search stops at the first node reached from both sides.
+ *
+ * Workspace is allocated once and reused by every query through visit stamps,
+ * so a query costs only the nodes it touches (plus O(N) per bottom-up step).
+ * Not thread safe, use one PathFinder per thread.
+ */
+public final class PathFinder {
+
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    private final CompactTopology graph;
+    private final Side forward;
+    private final Side backward;
+    private int stamp;
+    private int visited;
+
+    public PathFinder(CompactTopology graph) {
+        this.graph = graph;
+        forward = new Side(graph.nodesCount());
+        backward = new Side(graph.nodesCount());
+    }
+
+    /**
+     * @return -1 if no path, 0 if nodes are the same
+     */
+    public int distance(int node1, int node2) {
+        int meet = search(graph.indexOrThrow(node1), graph.indexOrThrow(node2));
+        return meet < 0 ? -1 : forward.level[meet] + backward.level[meet];
+    }
+
+    /**
+     * @return node ids from node1 to node2, empty if no path
+     */
+    public int[] path(int node1, int node2) {
+        int meet = search(graph.indexOrThrow(node1), graph.indexOrThrow(node2));
+        if (meet < 0)
+            return new int[0];
+
+        int[] path = new int[forward.level[meet] + backward.level[meet] + 1];
+        int pos = forward.level[meet];
+        for (int v = meet; pos >= 0; v = forward.parent[v])
+            path[pos--] = graph.nodeId(v);
+        pos = forward.level[meet];
+        for (int v = meet; v != -1; v = backward.parent[v])
+            path[pos++] = graph.nodeId(v);
+
+        return path;
+    }
+
+    /**
+     * Nodes visited by both sides during the last query
+     */
+    public int visitedCount() {
+        return visited;
+    }
+
+    /**
+     * @return dense index where the searches met or -1
+     */
+    private int search(int source, int target) {
+        if (++stamp == Integer.MAX_VALUE) {
+            forward.clear();
+            backward.clear();
+            stamp = 1;
+        }
+        long unexplored = graph.degreeSum();
+        forward.start(source, unexplored);
+        backward.start(target, unexplored);
+        visited = source == target ? 1 : 2;
+        if (source == target)
+            return source;
+
+        while (forward.size > 0 && backward.size > 0) {
+            boolean forwardSmaller = forward.frontierEdges <= backward.frontierEdges;
+            Side side = forwardSmaller ? forward : backward;
+            Side other = forwardSmaller ? backward : forward;
+            int meet = side.expand(other);
+            if (meet >= 0)
+                return meet;
+        }
+
+        return -1;
+    }
+
+    private final class Side {
+        final int[] seen;
+        final int[] level;
+        final int[] parent;
+        int[] frontier;
+        int[] next;
+        int size;
+        int depth;
+        long frontierEdges;
+        long unexploredEdges;
+        boolean bottomUp;
+
+        Side(int n) {
+            seen = new int[n];
+            level = new int[n];
+            parent = new int[n];
+            frontier = new int[n];
+            next = new int[n];
+        }
+
+        void clear() {
+            Arrays.fill(seen, 0);
+        }
+
+        void start(int source, long unexplored) {
+            seen[source] = stamp;
+            level[source] = 0;
+            parent[source] = -1;
+            frontier[0] = source;
+            size = 1;
+            depth = 0;
+            frontierEdges = graph.degree(source);
+            unexploredEdges = unexplored - frontierEdges;
+            bottomUp = false;
+        }
+
+        /**
+         * Advances this side by one level
+         * @return first node already seen by other side or -1
+         */
+        int expand(Side other) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && size < graph.nodesCount() / BETA)
+                bottomUp = false;
+
+            int meet = bottomUp ? bottomUpStep(other) : topDownStep(other);
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            depth++;
+            return meet;
+        }
+
+        private int topDownStep(Side other) {
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            int count = 0;
+            long edges = 0;
+            for (int k = 0; k < size; k++) {
+                int v = frontier[k];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int u = neighbors[i];
+                    if (seen[u] == stamp)
+                        continue;
+                    visit(u, v);
+                    next[count++] = u;
+                    edges += offsets[u + 1] - offsets[u];
+                    if (other.seen[u] == stamp)
+                        return u;
+                }
+            }
+            return advance(count, edges);
+        }
+
+        private int bottomUpStep(Side other) {
+            int[] offsets = graph.offsets();
+            int[] neighbors = graph.neighbors();
+            int count = 0;
+            long edges = 0;
+            for (int u = 0; u < seen.length; u++) {
+                if (seen[u] == stamp)
+                    continue;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = neighbors[i];
+                    if (seen[v] == stamp && level[v] == depth) {
+                        visit(u, v);
+                        next[count++] = u;
+                        edges += offsets[u + 1] - offsets[u];
+                        if (other.seen[u] == stamp)
+                            return u;
+                        break;
+                    }
+                }
+            }
+            return advance(count, edges);
+        }
+
+        private void visit(int u, int v) {
+            seen[u] = stamp;
+            level[u] = depth + 1;
+            parent[u] = v;
+            visited++;
+        }
+
+        private int advance(int count, long edges) {
+            size = count;
+            frontierEdges = edges;
+            unexploredEdges -= edges;
+            return -1;
+        }
+    }
+}
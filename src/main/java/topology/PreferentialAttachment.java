@@ -0,0 +1,136 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Barabasi-Albert growth with the endpoint array of Batagelj, Brandes
+ * "Efficient generation of large random networks".
+ * Start graph is complete, every next node v gets edges to mEdges distinct older nodes,
+ * chosen with probability proportional to their degree before v came.
+ * Every edge writes both of its ends into one array, so a node appears there
+ * degree times and a uniform cell of the array is a degree-proportional draw in O(1).
+ *
+ * The array itself is the edge list: edge e is (ends[2e], ends[2e+1]), newer node first.
+ * Memory - 8*M bytes for the array, plus 4*(N+2M) for the CSR snapshot
+ * Complexity - O(N*m^2 + M) - the m^2 is the check of distinct targets of a node
+ */
+public final class PreferentialAttachment {
+
+    private final int nodesCount;
+    private final int mEdges;
+    private int startGraphSize;
+    private long seed = new SplittableRandom().nextLong();
+
+    public PreferentialAttachment(int nodesCount, int mEdges) {
+        if (nodesCount < 0 || mEdges < 1)
+            throw new RuntimeException("Expected nodesCount >= 0 and mEdges >= 1");
+        this.nodesCount = nodesCount;
+        this.mEdges = mEdges;
+        this.startGraphSize = Math.min(nodesCount, mEdges + 1);
+    }
+
+    /**
+     * Size of complete start graph, nodes 0..startGraphSize-1
+     */
+    public PreferentialAttachment startGraphSize(int startGraphSize) {
+        this.startGraphSize = Math.max(0, Math.min(nodesCount, startGraphSize));
+        return this;
+    }
+
+    /**
+     * The same seed gives the same graph
+     */
+    public PreferentialAttachment seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public long edgesCount() {
+        long n0 = startGraphSize;
+        long edges = n0 * (n0 - 1) / 2;
+        for (long v = n0; v < nodesCount; v++)
+            edges += Math.min(v, mEdges);
+        return edges;
+    }
+
+    /**
+     * @return ends of every edge, edge e is (ends[2e], ends[2e+1]), no self loops and duplicates
+     */
+    public int[] endpoints() {
+        long edges = edgesCount();
+        if (2 * edges > Integer.MAX_VALUE - 8)
+            throw new RuntimeException("Too many edges for one endpoint array: " + edges);
+        int[] ends = new int[(int) (2 * edges)];
+        SplittableRandom random = new SplittableRandom(seed);
+
+        int size = 0;
+        for (int v = 1; v < startGraphSize; v++) {
+            for (int u = 0; u < v; u++) {
+                ends[size++] = v;
+                ends[size++] = u;
+            }
+        }
+        for (int v = startGraphSize; v < nodesCount; v++) {
+            int before = size; // draws see degrees from before v came
+            if (v <= mEdges) {
+                for (int u = 0; u < v; u++) {
+                    ends[size++] = v;
+                    ends[size++] = u;
+                }
+                continue;
+            }
+            for (int j = 0; j < mEdges; j++) {
+                int target;
+                do {
+                    target = ends[random.nextInt(before)];
+                } while (chosen(ends, before, size, target));
+                ends[size++] = v;
+                ends[size++] = target;
+            }
+        }
+
+        return ends;
+    }
+
+    private static boolean chosen(int[] ends, int from, int to, int target) {
+        for (int i = from + 1; i < to; i += 2) {
+            if (ends[i] == target)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Snapshot built straight from the endpoint array, no sort of the edge list:
+     * edges come grouped by newer node, so a neighbour list is the node's own targets
+     * followed by later nodes in ascending order, only the first part is sorted
+     * Complexity - O(N + M + N*m*log(m))
+     */
+    public CompactTopology toCompact() {
+        int[] ends = endpoints();
+        int n = nodesCount;
+        int[] offsets = new int[n + 1];
+        for (int end : ends)
+            offsets[end + 1]++;
+        for (int v = 0; v < n; v++)
+            offsets[v + 1] += offsets[v];
+
+        int[] neighbors = new int[ends.length];
+        int[] pos = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < ends.length; i += 2) {
+            int newer = ends[i];
+            int older = ends[i + 1];
+            neighbors[pos[newer]++] = older;
+            neighbors[pos[older]++] = newer;
+        }
+        for (int v = 0; v < n; v++)
+            Arrays.sort(neighbors, offsets[v], offsets[v] + ownEdges(v));
+
+        return new CompactTopology(null, offsets, neighbors);
+    }
+
+    private int ownEdges(int v) {
+        return v < startGraphSize ? v : Math.min(v, mEdges);
+    }
+}
@@ -0,0 +1,296 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Size of largest connected component while nodes or edges are removed one by one
+ * Whole curve is computed backwards (Newman, Ziff "Fast Monte Carlo algorithm for site or bond percolation"):
+ * removed nodes are added back in reverse order and joined with present neighbours by union-find,
+ * so LCC size after every removal is known in O((N+M)*α(N)) for the whole sequence.
+ *
+ * curve[k] is LCC size after first k removals, curve[0] is LCC of the whole graph.
+ * Nodes or edges missing in a user-supplied order are never removed.
+ */
+public final class Robustness {
+
+    public enum Order {
+        /** uniformly random failures */
+        RANDOM,
+        /** attack by degree in the original graph */
+        DEGREE,
+        /** attack by degree in the remaining graph, recalculated after every removal */
+        ADAPTIVE_DEGREE
+    }
+
+    private final CompactTopology graph;
+    private SplittableRandom random = new SplittableRandom();
+
+    public Robustness(CompactTopology graph) {
+        this.graph = graph;
+    }
+
+    public Robustness seed(long seed) {
+        this.random = new SplittableRandom(seed);
+        return this;
+    }
+
+    /**
+     * @return all dense indexes in removal order, DEGREE ties are broken by index
+     */
+    public int[] order(Order order) {
+        int n = graph.nodesCount();
+        switch (order) {
+            case RANDOM:
+                int[] shuffled = identity(n);
+                shuffle(shuffled);
+                return shuffled;
+            case DEGREE:
+                return sortedByDegree(false);
+            case ADAPTIVE_DEGREE:
+                return sortedByDegree(true);
+            default:
+                throw new RuntimeException("Unknown order " + order);
+        }
+    }
+
+    public int[] nodeRemoval(Order order) {
+        return nodeRemoval(order(order));
+    }
+
+    /**
+     * @param order - dense indexes in removal order
+     * @return curve of length order.length + 1
+     */
+    public int[] nodeRemoval(int[] order) {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        boolean[] present = new boolean[n];
+        Arrays.fill(present, true);
+        for (int v : order) {
+            if (!present[v])
+                throw new RuntimeException("Node " + graph.nodeId(v) + " is removed twice");
+            present[v] = false;
+        }
+
+        UnionFind uf = new UnionFind(n);
+        for (int v = 0; v < n; v++) {
+            if (!present[v])
+                continue;
+            uf.largest = Math.max(uf.largest, 1);
+            for (int i = offsets[v]; i < offsets[v + 1] && neighbors[i] < v; i++) {
+                if (present[neighbors[i]])
+                    uf.union(v, neighbors[i]);
+            }
+        }
+
+        int[] curve = new int[order.length + 1];
+        curve[order.length] = uf.largest;
+        for (int k = order.length - 1; k >= 0; k--) {
+            int v = order[k];
+            present[v] = true;
+            uf.largest = Math.max(uf.largest, 1);
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (present[neighbors[i]])
+                    uf.union(v, neighbors[i]);
+            }
+            curve[k] = uf.largest;
+        }
+
+        return curve;
+    }
+
+    /**
+     * Random edge failures
+     * @return curve of length edgesCount + 1
+     */
+    public int[] edgeRemoval() {
+        int m = (int) graph.edgesCount();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        int e = 0;
+        for (int v = 0; v < graph.nodesCount(); v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (neighbors[i] > v) {
+                    from[e] = v;
+                    to[e++] = neighbors[i];
+                }
+            }
+        }
+
+        int[] perm = identity(m);
+        shuffle(perm);
+        int[] shuffledFrom = new int[m];
+        int[] shuffledTo = new int[m];
+        for (int i = 0; i < m; i++) {
+            shuffledFrom[i] = from[perm[i]];
+            shuffledTo[i] = to[perm[i]];
+        }
+        return edgeRemoval(shuffledFrom, shuffledTo);
+    }
+
+    /**
+     * @param from - dense index of one end of every removed edge, in removal order
+     * @param to - dense index of other end
+     * @return curve of length from.length + 1
+     */
+    public int[] edgeRemoval(int[] from, int[] to) {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        boolean[] removed = new boolean[neighbors.length];
+        for (int k = 0; k < from.length; k++) {
+            int v = Math.min(from[k], to[k]);
+            int u = Math.max(from[k], to[k]);
+            int pos = Arrays.binarySearch(neighbors, offsets[v], offsets[v + 1], u);
+            if (pos < 0)
+                throw new RuntimeException("No edge " + graph.nodeId(v) + "-" + graph.nodeId(u) + " in graph");
+            if (removed[pos])
+                throw new RuntimeException("Edge " + graph.nodeId(v) + "-" + graph.nodeId(u) + " is removed twice");
+            removed[pos] = true;
+        }
+
+        UnionFind uf = new UnionFind(n);
+        uf.largest = n > 0 ? 1 : 0;
+        for (int v = 0; v < n; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (neighbors[i] > v && !removed[i])
+                    uf.union(v, neighbors[i]);
+            }
+        }
+
+        int[] curve = new int[from.length + 1];
+        curve[from.length] = uf.largest;
+        for (int k = from.length - 1; k >= 0; k--) {
+            uf.union(from[k], to[k]);
+            curve[k] = uf.largest;
+        }
+
+        return curve;
+    }
+
+    private static int[] identity(int n) {
+        int[] array = new int[n];
+        for (int i = 0; i < n; i++)
+            array[i] = i;
+        return array;
+    }
+
+    private void shuffle(int[] array) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = array[i];
+            array[i] = array[j];
+            array[j] = t;
+        }
+    }
+
+    /**
+     * Bucket sort by degree, highest first. For adaptive order nodes stay sorted by remaining degree:
+     * when a neighbour loses an edge it is swapped to the start of its bucket and the bucket shrinks
+     * (same bookkeeping as Batagelj-Zaversnik core decomposition), so whole order costs O(N+M)
+     */
+    private int[] sortedByDegree(boolean adaptive) {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        int[] degree = new int[n];
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            degree[v] = graph.degree(v);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+
+        int[] bin = new int[maxDegree + 2]; // start of every degree bucket in vert
+        for (int v = 0; v < n; v++)
+            bin[degree[v] + 1]++;
+        for (int d = 1; d < bin.length; d++)
+            bin[d] += bin[d - 1];
+        int[] vert = new int[n]; // ascending by degree
+        int[] pos = new int[n];
+        int[] next = bin.clone();
+        for (int v = 0; v < n; v++) {
+            pos[v] = next[degree[v]]++;
+            vert[pos[v]] = v;
+        }
+
+        int[] order = new int[n];
+        if (!adaptive) {
+            // stable ascending buckets, reversed bucket by bucket to keep ties by index
+            int k = 0;
+            for (int d = maxDegree; d >= 0; d--) {
+                for (int i = bin[d]; i < bin[d + 1]; i++)
+                    order[k++] = vert[i];
+            }
+            return order;
+        }
+
+        boolean[] removed = new boolean[n];
+        for (int k = 0; k < n; k++) {
+            int v = vert[n - 1 - k];
+            order[k] = v;
+            removed[v] = true;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int u = neighbors[i];
+                if (removed[u])
+                    continue;
+                int du = degree[u];
+                int w = vert[bin[du]];
+                if (u != w) {
+                    pos[w] = pos[u];
+                    vert[pos[u]] = w;
+                    pos[u] = bin[du];
+                    vert[pos[u]] = u;
+                }
+                bin[du]++;
+                degree[u]--;
+            }
+        }
+
+        return order;
+    }
+
+    /**
+     * Union by size with path halving, tracks the largest set
+     */
+    private static final class UnionFind {
+        final int[] parent;
+        final int[] size;
+        int largest;
+
+        UnionFind(int n) {
+            parent = new int[n];
+            size = new int[n];
+            for (int i = 0; i < n; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        void union(int a, int b) {
+            a = find(a);
+            b = find(b);
+            if (a == b)
+                return;
+            if (size[a] < size[b]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            parent[b] = a;
+            size[a] += size[b];
+            largest = Math.max(largest, size[a]);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Stochastic block model: nodes are split into blocks of consecutive ids,
+ * pair (u, v) from blocks a, b is an edge independently with probability p[a][b].
+ * Every block pair is a G(n,p) on its own range of pairs - triangle inside a block,
+ * rectangle between two blocks - generated by geometric skipping like ErdosRenyi.
+ *
+ * Degree-corrected (Karrer, Newman "Stochastic blockmodels and community structure in networks"):
+ * probability is min(1, theta[u]*theta[v]*p[a][b]). With theta of mean 1 in every block
+ * expected edges between blocks are the same as without correction while degrees inside
+ * a block follow theta. Nodes of a block are ordered by theta descending and pairs are taken
+ * with geometric gaps and rejection as in ChungLu.
+ *
+ * Block pairs are cut into chunks generated in parallel, see ChunkedEdges.
+ * Complexity - O(N + M/parallelism), degree-corrected - O(N*B + M/parallelism), B - count of blocks
+ */
+public final class StochasticBlockModel {
+
+    private final int[] blockSizes;
+    private final int[] blockStarts;
+    private final double[][] probabilities;
+    private double[] theta;
+    private long seed = new SplittableRandom().nextLong();
+    private int parallelism = Workers.defaultParallelism();
+
+    private CompactTopology graph;
+
+    /**
+     * @param blockSizes - nodes of block b are ids blockStarts[b]..blockStarts[b]+blockSizes[b]-1 in block order
+     * @param probabilities - symmetric matrix of edge probabilities between blocks
+     */
+    public StochasticBlockModel(int[] blockSizes, double[][] probabilities) {
+        int blocks = blockSizes.length;
+        if (probabilities.length != blocks)
+            throw new RuntimeException("Expected " + blocks + "x" + blocks + " probabilities");
+        blockStarts = new int[blocks + 1];
+        for (int a = 0; a < blocks; a++) {
+            if (blockSizes[a] < 0)
+                throw new RuntimeException("Block sizes should be >= 0");
+            if ((long) blockStarts[a] + blockSizes[a] > Integer.MAX_VALUE - 8)
+                throw new RuntimeException("Too many nodes");
+            blockStarts[a + 1] = blockStarts[a] + blockSizes[a];
+            if (probabilities[a].length != blocks)
+                throw new RuntimeException("Expected " + blocks + "x" + blocks + " probabilities");
+            for (int b = 0; b < blocks; b++) {
+                double p = probabilities[a][b];
+                if (!(p >= 0 && p <= 1) || p != probabilities[b][a])
+                    throw new RuntimeException("Probabilities should be symmetric and in [0, 1]");
+            }
+        }
+        this.blockSizes = blockSizes;
+        this.probabilities = probabilities;
+    }
+
+    /**
+     * Degree correction, theta of every node, >= 0
+     */
+    public StochasticBlockModel degreeCorrected(double[] theta) {
+        if (theta.length != nodesCount())
+            throw new RuntimeException("Expected " + nodesCount() + " theta values");
+        for (double t : theta) {
+            if (!(t >= 0))
+                throw new RuntimeException("Theta should be >= 0");
+        }
+        this.theta = theta;
+        graph = null;
+        return this;
+    }
+
+    /**
+     * The same seed gives the same graph
+     */
+    public StochasticBlockModel seed(long seed) {
+        this.seed = seed;
+        graph = null;
+        return this;
+    }
+
+    public StochasticBlockModel parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public int nodesCount() {
+        return blockStarts[blockSizes.length];
+    }
+
+    /**
+     * @return block of every node
+     */
+    public int[] blocks() {
+        int[] blocks = new int[nodesCount()];
+        for (int a = 0; a < blockSizes.length; a++)
+            Arrays.fill(blocks, blockStarts[a], blockStarts[a + 1], a);
+        return blocks;
+    }
+
+    /**
+     * Generated graph, the same snapshot on every call
+     */
+    public CompactTopology toCompact() {
+        if (graph == null)
+            graph = edges().toCompact(nodesCount());
+        return graph;
+    }
+
+    /**
+     * Mutable copy of the generated graph
+     */
+    public Topology topology() {
+        return toCompact().toTopology();
+    }
+
+    /**
+     * Ground truth partition of the generated graph: one MetaNode per non-empty block,
+     * key - smallest node of block, inner edges are the generated ones
+     */
+    public Map<Integer, MetaNode> communities() {
+        return MetaNode.of(toCompact(), blocks());
+    }
+
+    public EdgeList edges() {
+        int[][] orders = theta == null ? null : byThetaDescending();
+        List<Chunk> chunks = chunks();
+        return ChunkedEdges.generate(seed, parallelism, chunks.size(), (i, random) ->
+                orders == null ? sample(chunks.get(i), random) : sampleCorrected(chunks.get(i), orders, random));
+    }
+
+    /**
+     * Range of one block pair, pair numbers for plain model, rows of block a for degree-corrected
+     */
+    private static final class Chunk {
+        final int a;
+        final int b;
+        final long from;
+        final long to;
+        final double expected;
+
+        Chunk(int a, int b, long from, long to, double expected) {
+            this.a = a;
+            this.b = b;
+            this.from = from;
+            this.to = to;
+            this.expected = expected;
+        }
+    }
+
+    private List<Chunk> chunks() {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int a = 0; a < blockSizes.length; a++) {
+            for (int b = a; b < blockSizes.length; b++) {
+                double p = probabilities[a][b];
+                long sizeA = blockSizes[a];
+                long pairs = a == b ? sizeA * (sizeA - 1) / 2 : sizeA * blockSizes[b];
+                if (p == 0 || pairs == 0)
+                    continue;
+                long range = theta == null ? pairs : sizeA; // pairs or rows
+                double expected = p * pairs;
+                long count = (long) Math.max(1, Math.min(range, Math.ceil(expected / ChunkedEdges.CHUNK_EDGES)));
+                for (long i = 0; i < count; i++) {
+                    long from = range / count * i + Math.min(i, range % count);
+                    long to = range / count * (i + 1) + Math.min(i + 1, range % count);
+                    chunks.add(new Chunk(a, b, from, to, expected / count));
+                }
+            }
+        }
+        return chunks;
+    }
+
+    private EdgeList sample(Chunk chunk, SplittableRandom random) {
+        EdgeList edges = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8, chunk.expected * 1.05 + 16));
+        double p = probabilities[chunk.a][chunk.b];
+        if (chunk.a == chunk.b) {
+            ErdosRenyi.gnpChunk(chunk.from, chunk.to, p, random, blockStarts[chunk.a], edges);
+            return edges;
+        }
+
+        // pair number k of rectangle is (k / sizeB, k % sizeB)
+        int sizeB = blockSizes[chunk.b];
+        int startA = blockStarts[chunk.a];
+        int startB = blockStarts[chunk.b];
+        double logQ = Math.log1p(-p);
+        long k = chunk.from - 1;
+        while (true) {
+            double gap = Math.floor(Math.log1p(-random.nextDouble()) / logQ);
+            if (gap >= chunk.to - k - 1)
+                break;
+            k += 1 + (long) gap;
+            edges.add(startA + (int) (k / sizeB), startB + (int) (k % sizeB));
+        }
+        return edges;
+    }
+
+    private EdgeList sampleCorrected(Chunk chunk, int[][] orders, SplittableRandom random) {
+        EdgeList edges = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8, chunk.expected * 1.05 + 16));
+        double pab = probabilities[chunk.a][chunk.b];
+        int[] rows = orders[chunk.a];
+        int[] columns = orders[chunk.b];
+        int n = columns.length;
+        for (int i = (int) chunk.from; i < chunk.to; i++) {
+            int u = rows[i];
+            double wu = theta[u] * pab;
+            if (wu == 0)
+                break; // rows are ordered by theta, the rest is 0 too
+            int j = chunk.a == chunk.b ? i + 1 : 0;
+            if (j >= n)
+                continue;
+            double p = Math.min(1, wu * theta[columns[j]]);
+            while (j < n && p > 0) {
+                if (p < 1) {
+                    double gap = Math.floor(Math.log1p(-random.nextDouble()) / Math.log1p(-p));
+                    if (gap >= n - j)
+                        break;
+                    j += (int) gap;
+                }
+                double q = Math.min(1, wu * theta[columns[j]]);
+                if (random.nextDouble() < q / p)
+                    edges.add(u, columns[j]);
+                p = q;
+                j++;
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Nodes of every block by exact theta descending, ties by node ascending:
+     * distinct bits of theta are sorted, bits of non-negative doubles sort in the order of values,
+     * then nodes are counted into buckets of their rank
+     */
+    private int[][] byThetaDescending() {
+        int[][] orders = new int[blockSizes.length][];
+        for (int a = 0; a < blockSizes.length; a++) {
+            int start = blockStarts[a];
+            int size = blockSizes[a];
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++)
+                values[i] = Double.doubleToLongBits(theta[start + i] + 0.0); // -0.0 as 0.0
+            Arrays.parallelSort(values);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || values[i] != values[i - 1])
+                    values[distinct++] = values[i];
+            }
+
+            int[] rank = new int[size];
+            int[] bucket = new int[distinct + 1]; // start of every rank, largest theta first
+            for (int i = 0; i < size; i++) {
+                rank[i] = distinct - 1 - Arrays.binarySearch(values, 0, distinct, Double.doubleToLongBits(theta[start + i] + 0.0));
+                bucket[rank[i] + 1]++;
+            }
+            for (int r = 0; r < distinct; r++)
+                bucket[r + 1] += bucket[r];
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++)
+                order[bucket[rank[i]]++] = start + i;
+            orders[a] = order;
+        }
+        return orders;
+    }
+}
@@ -1,36 +1,181 @@
 package topology;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Topology of undirected, unweighted graph
+ *
+ * Every change through mutation methods, put, putAll, remove and clear bumps version()
+ * and keeps degree sum and degree histogram up to date, so counts and averages are O(1).
+ * Heavy metrics and the CSR snapshot are memoized until the next change,
+ * the memo is not serialized.
+ * Changes made through other Map methods or directly in neighbour sets
+ * are not seen by the counters and the cache.
  */
-public class Topology extends HashMap<Integer, Set<Integer>> {
+public class Topology extends HashMap<Integer, Set<Integer>> implements MutableTopology {
 
+    private long version;
+    private long degreeSum; // sum of sizes of neighbour sets
+    private int[] degreeCounts = new int[1]; // count of nodes with degree d at index d
+    private transient long cachedVersion = -1;
+    private transient Map<String, Object> cache = new HashMap<>();
 
+    @Override
     public void addEdge(int node1, int node2) {
-        this.computeIfAbsent(node1, a -> new HashSet<>());
-        this.computeIfAbsent(node2, a -> new HashSet<>());
-        this.get(node1).add(node2);
-        this.get(node2).add(node1);
+        Set<Integer> neighs1 = neighsOrNew(node1);
+        Set<Integer> neighs2 = neighsOrNew(node2);
+        if (neighs1.add(node2))
+            edgeAdded(neighs1);
+        if (neighs2.add(node1))
+            edgeAdded(neighs2);
+        version++;
     }
 
+    @Override
     public void addNode(int node) {
-        this.computeIfAbsent(node, a -> new HashSet<>());
+        neighsOrNew(node);
+        version++;
     }
 
+    @Override
     public void removeEdge(int node1, int node2) {
-        this.get(node1).remove(node2);
-        this.get(node2).remove(node1);
+        Set<Integer> neighs1 = this.get(node1);
+        Set<Integer> neighs2 = this.get(node2);
+        if (neighs1.remove(node2))
+            edgeRemoved(neighs1);
+        if (neighs2.remove(node1))
+            edgeRemoved(neighs2);
+        version++;
     }
 
-    public void removeNode(Integer node) {
+    @Override
+    public void removeNode(int node) {
         Set<Integer> neighs = this.get(node);
-        neighs.forEach(neigh -> this.get(neigh).remove(node));
+        neighs.forEach(neigh -> {
+            Set<Integer> other = this.get(neigh);
+            if (neigh != node && other.remove(node))
+                edgeRemoved(other);
+        });
         this.remove(node);
     }
 
+    @Override
+    public Set<Integer> put(Integer node, Set<Integer> neighs) {
+        Set<Integer> old = super.put(node, neighs);
+        degreeSum += neighs.size() - (old == null ? 0 : old.size());
+        if (old != null)
+            countDegree(old.size(), -1);
+        countDegree(neighs.size(), 1);
+        version++;
+        return old;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Set<Integer>> topology) {
+        topology.forEach(this::put);
+    }
+
+    @Override
+    public Set<Integer> remove(Object node) {
+        Set<Integer> old = super.remove(node);
+        if (old != null) {
+            degreeSum -= old.size();
+            countDegree(old.size(), -1);
+            version++;
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        degreeSum = 0;
+        degreeCounts = new int[1];
+        version++;
+    }
+
+    /**
+     * Copy with own neighbour sets and counters, so changes of the copy don't reach this topology
+     * Complexity - O(N+M)
+     */
+    @Override
+    public Topology clone() {
+        Topology copy = (Topology) super.clone();
+        copy.replaceAll((node, neighs) -> new HashSet<>(neighs));
+        copy.degreeCounts = degreeCounts.clone();
+        copy.cache = null; // own cache, computed again on demand
+        return copy;
+    }
+
+    private Set<Integer> neighsOrNew(int node) {
+        Set<Integer> neighs = this.get(node);
+        if (neighs == null) {
+            neighs = new HashSet<>();
+            super.put(node, neighs);
+            countDegree(0, 1);
+        }
+        return neighs;
+    }
+
+    /**
+     * Neighbour set already has one element more
+     */
+    private void edgeAdded(Set<Integer> neighs) {
+        degreeSum++;
+        countDegree(neighs.size() - 1, -1);
+        countDegree(neighs.size(), 1);
+    }
+
+    /**
+     * Neighbour set already has one element less
+     */
+    private void edgeRemoved(Set<Integer> neighs) {
+        degreeSum--;
+        countDegree(neighs.size() + 1, -1);
+        countDegree(neighs.size(), 1);
+    }
+
+    private void countDegree(int degree, int delta) {
+        if (degree >= degreeCounts.length)
+            degreeCounts = Arrays.copyOf(degreeCounts, Math.max(degree + 1, 2 * degreeCounts.length));
+        degreeCounts[degree] += delta;
+    }
+
+    /**
+     * Count of changes, cached metrics are valid while it stays the same
+     */
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public boolean hasNode(int node) {
+        return this.containsKey(node);
+    }
+
+    @Override
+    public boolean hasEdge(int node1, int node2) {
+        Set<Integer> neighs = this.get(node1);
+        return neighs != null && neighs.contains(node2);
+    }
+
+    @Override
+    public int degree(int node) {
+        return this.get(node).size();
+    }
+
+    @Override
+    public int[] neighbors(int node) {
+        return this.get(node).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public int nodesCount() {
+        return this.size();
+    }
+
     /**
      * Merge two topologies into one
      * Node Ids of second topology would be changes
@@ -43,6 +188,42 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
         });
     }
 
+    /**
+     * Immutable CSR snapshot for read-only analytics, see CompactTopology
+     * Later changes of this topology are not reflected in the snapshot
+     * The same snapshot is returned until the topology is changed
+     * Complexity - O(N+M*log(M)), O(1) if not changed since the last call
+     */
+    @Override
+    public CompactTopology freeze() {
+        return cached("freeze", () -> CompactTopology.of(this));
+    }
+
+    /**
+     * Value of metric computed at current version, computed again after any change
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String metric, Supplier<T> compute) {
+        if (cache == null || cachedVersion != version) { // null after deserialization
+            cache = new HashMap<>(); // not cleared in place, returned values may still be in use
+            cachedVersion = version;
+        }
+        T value = (T) cache.get(metric);
+        if (value == null) {
+            value = compute.get(); // may use other cached metrics, so no computeIfAbsent
+            cache.put(metric, value);
+        }
+        return value;
+    }
+
+    /**
+     * Counts, density, degree histogram, moments and assortativity in one parallel pass
+     * over the snapshot, see TopologySummary
+     */
+    public TopologySummary summary() {
+        return cached("summary", () -> freeze().summary());
+    }
+
     /**
      * The density of a network is the fraction between 0 and 1 that tells us what portion of
      * all possible edges are actually realized in the network.  For a network G made of n
@@ -64,86 +245,59 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
         return degreesSum/nodes;
     }
 
+    /**
+     * Complexity - O(1) - running sum
+     */
     public int degreeSum() {
-        return this.values().stream().map(Set::size).reduce(0, Integer::sum);
+        return (int) degreeSum;
     }
 
+    /**
+     * Complexity - O(1) - running sum
+     */
     public int edgesCount() {
-        return this.values().stream().map(Set::size).reduce(0, Integer::sum)/2;
+        return (int) (degreeSum / 2);
     }
 
+    /**
+     * Complexity - O(1) - running histogram of neighbour set sizes
+     */
     public long nodesWithDegree(int degree) {
-        return this.values().stream().map(Set::size)
-                .filter(a -> a == degree)
-                .count();
+        return degree >= 0 && degree < degreeCounts.length ? degreeCounts[degree] : 0;
     }
 
     /**
-     * Key - arbitrary node of connected component
+     * Key - smallest node of connected component
      * Value - size
-     * Complexity - O(N) - marked BFS
+     * Complexity - O((N+M)/parallelism) - concurrent union-find, see Components
      * @return {root node, size}
      */
     public Map<Integer, Integer> connectedComponents(boolean skipSingles) {
-        Map<Integer, Integer> cc = new HashMap<>();
-        Set<Integer> marked = new HashSet<>();
-
-        for(Integer startNode : this.keySet()) { // we should check each node cause graph may be not connected
-            if(marked.contains(startNode))
-                continue;
-
-            Queue<Integer> path = new LinkedList<>();
-            path.add(startNode);
-
-            int size = 0;
-            Integer last = null;
-            while (!path.isEmpty()) {
-
-                Integer node = path.poll();
-                if(marked.contains(node))
-                    continue;
-                marked.add(node);
-                size++;
-                Set<Integer> next = new HashSet<>(this.get(node));
-                next.removeAll(marked);
-                path.addAll(next);
-                last = node;
-            }
-
-            if(!skipSingles || size > 1)
-                cc.put(last, size);
-        }
-
-        return cc;
+        return freeze().connectedComponents(skipSingles);
     }
 
     /**
      * Return subgraph wich is largest connected component
-     * If there are multiple LCCs of same size arbitrary is returned
-     * Complexity - O(N) - complexity of connectedComponents() + BFS
+     * If there are multiple LCCs of same size the one with the smallest node is returned
+     * Complexity - O((N+M)/parallelism) - concurrent union-find, see Components
      */
     public Topology largestConnectedComponent() {
-        Map<Integer, Integer> cc = connectedComponents(false);
-        if(cc.size() == 0)
+        CompactTopology ct = freeze();
+        Components components = new Components(ct);
+        if (components.largest() < 0)
             return this;
-        Integer root = cc.entrySet().stream().max(Entry.comparingByValue()).get().getKey();
+        int[] labels = components.labels();
+        int[] offsets = ct.offsets();
+        int[] neighbors = ct.neighbors();
 
         Topology tp = new Topology();
-
-        Set<Integer> marked = new HashSet<>();
-        Queue<Integer> path = new LinkedList<>();
-        path.add(root);
-
-        while (!path.isEmpty()) {
-            Integer node = path.poll();
-            marked.add(node);
-
-            this.get(node).forEach(next -> {
-                if(!marked.contains(next)) {
-                    tp.addEdge(node, next);
-                    path.add(next);
-                }
-            });
+        for (int v = 0; v < labels.length; v++) {
+            if (labels[v] != components.largest())
+                continue;
+            int node = ct.nodeId(v);
+            tp.addNode(node);
+            for (int i = offsets[v]; i < offsets[v + 1]; i++)
+                tp.addEdge(node, ct.nodeId(neighbors[i]));
         }
 
         return tp;
@@ -151,67 +305,34 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
 
     /**
      * Size of Largest Connected Component
-     * Complexity - O(N) - marked BFS
+     * Complexity - O((N+M)/parallelism) - concurrent union-find, see Components
      */
     public int sizeLLC() {
-        Set<Integer> marked = new HashSet<>();
-        int maxSize = 0;
-        for(Integer startNode : this.keySet()) { // we should check each node cause graph may be not connected
-            if(marked.contains(startNode))
-                continue;
-
-            Queue<Integer> path = new LinkedList<>();
-            path.add(startNode);
-
-            int size = 0;
-            while (!path.isEmpty()) {
-
-                Integer node = path.poll();
-                if(marked.contains(node))
-                    continue;
-                marked.add(node);
-                size++;
-                Set<Integer> next = new HashSet<>(this.get(node));
-                next.removeAll(marked);
-                path.addAll(next);
-            }
-
-            maxSize = Math.max(maxSize, size);
-        }
-
-        return maxSize;
+        return cached("sizeLLC", () -> freeze().sizeLLC());
     }
 
 
 
     /**
+     * Bidirectional BFS, see PathFinder
+     * One PathFinder is kept until the topology is changed, so a query doesn't allocate O(N) workspace
      * @return -1 if no path, 0 if nodes are the same
      */
     public int shortestPathLength(int node1, int node2) {
-        if(!this.containsKey(node1) || !this.containsKey(node2))
-            throw new RuntimeException("No such node in graph");
-
-        Set<Integer> marked = new HashSet<>();
-        Queue<Integer> path = new LinkedList<>();
-
-        path.add(node1);
+        return pathFinder().distance(node1, node2);
+    }
 
-        int count = 0;
-        while (!path.isEmpty()) {
-            Set<Integer> next = new HashSet<>();
-            while (!path.isEmpty()) {
-                Integer node = path.poll();
-                marked.add(node);
-                if (node == node2)
-                    return count;
-                next.addAll(this.get(node));
-            }
-            next.removeAll(marked);
-            path.addAll(next);
-            count++;
-        }
+    /**
+     * One of shortest paths, see PathFinder
+     * One PathFinder is kept until the topology is changed, so a query doesn't allocate O(N) workspace
+     * @return nodes from node1 to node2, empty if no path
+     */
+    public List<Integer> shortestPath(int node1, int node2) {
+        return Arrays.stream(pathFinder().path(node1, node2)).boxed().collect(Collectors.toList());
+    }
 
-        return -1;
+    private PathFinder pathFinder() {
+        return cached("pathFinder", () -> new PathFinder(freeze()));
     }
 
     /**
@@ -222,64 +343,76 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
         if(!this.containsKey(node0))
             throw new RuntimeException("No such node in graph");
 
-        Set<Integer> marked = new HashSet<>();
-        Queue<Integer> path = new LinkedList<>();
+        return freeze().eccentricity(node0);
+    }
 
-        path.add(node0);
+    /**
+     * Exact max of diameters of connected components by eccentricity bounding
+     * Complexity - O(K*(N+M)) - K bounding BFS, usually a handful, see Eccentricities
+     */
+    public int diameter() {
+        return cached("diameter", () -> freeze().diameter());
+    }
 
-        int count = 0;
-        while (!path.isEmpty()) {
-            Set<Integer> next = new HashSet<>();
-            while (!path.isEmpty()) {
-                Integer node = path.poll();
-                marked.add(node);
-                next.addAll(this.get(node));
-            }
-            next.removeAll(marked);
-            path.addAll(next);
-            count++;
-        }
+    /**
+     * Min eccentricity of nodes, eccentricity is taken within connected component
+     */
+    public int radius() {
+        return cached("radius", () -> new Eccentricities(freeze()).radius());
+    }
 
-        return count-1;
+    /**
+     * Nodes with eccentricity equal to radius
+     */
+    public Set<Integer> center() {
+        return Arrays.stream(new Eccentricities(freeze()).center()).boxed().collect(Collectors.toSet());
     }
 
     /**
-     * For each connected component:
-     * 1. Take an arbitrary node
-     * 2. BFS for finding farthest node
-     * 3. Eccentricity of second node would be the diameter of connected component
-     * Complexity - O(N) - BFS
-     * @return max of diameters of connected components
+     * Nodes with eccentricity equal to diameter
      */
-    public int diameter() {
-        Set<Integer> marked = new HashSet<>();
-        int diameter = 0;
-        for(Integer startNode : this.keySet()) { // we should check each node cause graph may be not connected
-            if(marked.contains(startNode))
-                continue;
+    public Set<Integer> periphery() {
+        return Arrays.stream(new Eccentricities(freeze()).periphery()).boxed().collect(Collectors.toSet());
+    }
 
-            Queue<Integer> path = new LinkedList<>();
-            path.add(startNode);
-
-            Integer last = -1;
-            while (!path.isEmpty()) {
-                Set<Integer> next = new HashSet<>();
-                while (!path.isEmpty()) {
-                    Integer node = path.poll();
-                    last = node;
-                    marked.add(node);
-                    next.addAll(this.get(node));
-                }
-                next.removeAll(marked);
-                path.addAll(next);
-            }
+    /**
+     * LCC size after every removal of nodes in given order, see Robustness
+     * Complexity - O((N+M)*α(N)) - for the whole curve
+     * @return curve[k] - LCC size after first k removals
+     */
+    public int[] robustness(Robustness.Order order) {
+        return new Robustness(freeze()).nodeRemoval(order);
+    }
 
-            if(last != -1)
-                diameter = Math.max(diameter, eccentricity(last));
+    /**
+     * Same as robustness(Order) for user-supplied removal order of node ids
+     */
+    public int[] robustness(List<Integer> removalOrder) {
+        CompactTopology ct = freeze();
+        return new Robustness(ct).nodeRemoval(removalOrder.stream().mapToInt(ct::indexOrThrow).toArray());
+    }
 
-        }
+    /**
+     * LCC size after every removal of uniformly random edge, see Robustness
+     * @return curve[k] - LCC size after first k removals
+     */
+    public int[] edgeRobustness() {
+        return new Robustness(freeze()).edgeRemoval();
+    }
 
-        return diameter;
+    /**
+     * Same as edgeRobustness() for user-supplied removal order, edge is a set of its two nodes
+     */
+    public int[] edgeRobustness(List<Set<Integer>> removalOrder) {
+        CompactTopology ct = freeze();
+        int[] from = new int[removalOrder.size()];
+        int[] to = new int[removalOrder.size()];
+        for (int k = 0; k < from.length; k++) {
+            Iterator<Integer> ends = removalOrder.get(k).iterator();
+            from[k] = ct.indexOrThrow(ends.next());
+            to[k] = ct.indexOrThrow(ends.next());
+        }
+        return new Robustness(ct).edgeRemoval(from, to);
     }
 
     /**
@@ -290,42 +423,116 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
      * Complexity - O(N^2) - BFS for each node
      */
     public float avgShortestPathLength() {
+        return cached("avgShortestPathLength", () -> freeze().avgShortestPathLength());
+    }
 
-        if(this.size() > this.sizeLLC())
-            return -1f;
+    /**
+     * Closeness centrality (r-1)/sum(d(v,u)) scaled by (r-1)/(n-1), r - size of node's component
+     * Complexity - O(N/64*(M+N*D)) - bit-parallel BFS, see MultiSourceBfs
+     */
+    public Map<Integer, Float> closenessCentrality() {
+        CompactTopology ct = freeze();
+        return byNode(ct, new MultiSourceBfs(ct).closeness());
+    }
 
-        if(this.size() == 0)
-            return 0;
+    /**
+     * Harmonic centrality sum(1/d(v,u)) over all other nodes
+     * Complexity - O(N/64*(M+N*D)) - bit-parallel BFS, see MultiSourceBfs
+     */
+    public Map<Integer, Float> harmonicCentrality() {
+        CompactTopology ct = freeze();
+        return byNode(ct, new MultiSourceBfs(ct).harmonic());
+    }
 
+    /**
+     * Number of shortest paths between pairs of other nodes which pass through the node,
+     * paths of a pair with several shortest paths are weighted equally. Not normalized.
+     * Complexity - O(N*M) - Brandes, parallel over sources, see Betweenness
+     */
+    public Map<Integer, Float> betweennessCentrality() {
+        CompactTopology ct = freeze();
+        return byNode(ct, new Betweenness(ct).nodes());
+    }
 
-        int sum = 0;
+    /**
+     * Estimate of avgShortestPathLength() over connected pairs by HyperBall, also for disconnected graphs
+     * Complexity - O(D*(N+M)) with 128 byte counters, see HyperBall
+     */
+    public double approxAvgShortestPathLength() {
+        return cached("approxAvgShortestPathLength", () -> new HyperBall(freeze()).averageDistance());
+    }
 
-        for(Integer startNode : this.keySet()) {
-            Set<Integer> marked = new HashSet<>();
-            Queue<Integer> path = new LinkedList<>();
-            path.add(startNode);
+    /**
+     * Distance within which 90% of connected pairs are, estimated by HyperBall
+     */
+    public double effectiveDiameter() {
+        return cached("effectiveDiameter", () -> new HyperBall(freeze()).effectiveDiameter());
+    }
 
-            int rank = 0;
+    /**
+     * PageRank with damping 0.85, ranks sum to 1, see PageRank
+     * Complexity - O(M/parallelism) per iteration
+     */
+    public Map<Integer, Float> pageRank() {
+        CompactTopology ct = freeze();
+        return byNode(ct, new PageRank(ct).run());
+    }
 
-            while (!path.isEmpty()) {
-                Set<Integer> next = new HashSet<>();
-                while (!path.isEmpty()) {
-                    Integer node = path.poll();
-                    marked.add(node);
-                    next.addAll(this.get(node));
-                }
-                next.removeAll(marked);
-                path.addAll(next);
-                rank++;
-                sum += rank*next.size();
-            }
-        }
+    /**
+     * Eigenvector centrality normalized to unit length, see EigenvectorCentrality
+     * Complexity - O(M/parallelism) per iteration
+     */
+    public Map<Integer, Float> eigenvectorCentrality() {
+        CompactTopology ct = freeze();
+        return byNode(ct, new EigenvectorCentrality(ct).run());
+    }
 
-        return (float) sum/(this.size()*(this.size()-1));
+    /**
+     * Estimate of betweennessCentrality() by shortest path sampling, see ApproxBetweenness
+     * @param epsilon - max absolute error of betweenness normalized by n(n-1)
+     * @param delta - probability that the error is larger
+     */
+    public Map<Integer, Float> approxBetweennessCentrality(double epsilon, double delta) {
+        return approxBetweennessCentrality(epsilon, delta, Long.MAX_VALUE, 0);
     }
 
-    public Map<Integer, Float> betweennessCentrality() {
-        return null; //todo
+    /**
+     * Same as approxBetweennessCentrality(double, double) which stops earlier when
+     * time budget is over or the set of topK most central nodes is stable (topK = 0 - never)
+     */
+    public Map<Integer, Float> approxBetweennessCentrality(double epsilon, double delta,
+                                                           long timeBudgetMillis, int topK) {
+        CompactTopology ct = freeze();
+        double[] scores = new ApproxBetweenness(ct).accuracy(epsilon, delta)
+                .timeBudget(timeBudgetMillis).stopWhenTopStable(topK, 3).run();
+        return byNode(ct, scores);
+    }
+
+    private static Map<Integer, Float> byNode(CompactTopology ct, double[] scores) {
+        Map<Integer, Float> result = new HashMap<>();
+        for (int v = 0; v < scores.length; v++)
+            result.put(ct.nodeId(v), (float) scores[v]);
+
+        return result;
+    }
+
+    /**
+     * Same as betweennessCentrality() for edges, edge is a set of its two nodes
+     */
+    public Map<Set<Integer>, Float> edgeBetweennessCentrality() {
+        CompactTopology ct = freeze();
+        double[] scores = new Betweenness(ct).edges();
+        int[] offsets = ct.offsets();
+        int[] neighbors = ct.neighbors();
+        Map<Set<Integer>, Float> result = new HashMap<>();
+        for (int v = 0; v < ct.nodesCount(); v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (neighbors[i] > v)
+                    result.put(Set.of(ct.nodeId(v), ct.nodeId(neighbors[i])), (float) scores[i]);
+            }
+        }
+
+        return result;
     }
 
     /**
@@ -338,21 +545,32 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
         if(deg < 2)
             return 0;
 
-        long sum = neighs.stream()
-                .mapToLong(neig -> this.get(neig).stream().filter(neighs::contains).count())
-                .sum(); // each triangle is calculated twice, so there is no *2 in final formula
+        long sum = 0; // each triangle is calculated twice, so there is no *2 in final formula
+        for (Integer neig : neighs) {
+            Set<Integer> other = this.get(neig);
+            // probe the larger set with the smaller one, hubs are never scanned for low degree neighbours
+            Set<Integer> small = other.size() < deg ? other : neighs;
+            Set<Integer> large = small == other ? neighs : other;
+            for (Integer node2 : small) {
+                if (large.contains(node2))
+                    sum++;
+            }
+        }
 
 
         return (float) sum / deg /(deg-1);
     }
 
     public float avgClusteringCoeff() {
-        float sum = 0f;
-        for(Integer node : this.keySet()) {
-            sum += clusteringCoeff(node);
-        }
+        return cached("avgClusteringCoeff", () -> freeze().avgClusteringCoeff());
+    }
 
-        return sum/this.size();
+    /**
+     * Global clustering coefficient: 3*triangles/connected triples
+     * Complexity - O(M*sqrt(M)/parallelism) - see Triangles
+     */
+    public double transitivity() {
+        return cached("transitivity", () -> new Triangles(freeze()).transitivity());
     }
 
     /**
@@ -361,27 +579,7 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
      * @return - degree assortativity coefficient
      */
     public double degreeAssort() {
-        float avgDegree = averageDegree();
-
-        // for each edge
-        //sum1 =(deg(node1)-avg)*(deg(node2)-avg)
-        //sum2 = (deg(node1)-avg)^2
-        //sum3 = (deg(node2)-avg)^2
-
-        float sum1 = 0;
-        float sum2 = 0;
-        float sum3 = 0;
-        for(int node1 : this.keySet()) {
-            for(int node2 : this.get(node1)) {
-                sum1 += (this.get(node1).size() - avgDegree)*(this.get(node2).size() - avgDegree);
-                sum2 += Math.pow(this.get(node1).size() - avgDegree, 2);
-                sum3 += Math.pow(this.get(node2).size() - avgDegree, 2);
-            }
-        }
-
-        if(sum1 == 0 || sum2 == 0 || sum3 == 0)
-            return 0;
-        return sum1/Math.sqrt(sum2)/Math.sqrt(sum3);
+        return cached("degreeAssort", () -> freeze().degreeAssort());
     }
 
     public float modularCoeff(Set<Integer> comm) {
@@ -397,55 +595,67 @@ public class Topology extends HashMap<Integer, Set<Integer>> {
         return (innerEdges - expectedEdges)/totalEdges;
     }
 
-    // todo incorrect?
-    public Map<Integer, MetaNode> findCommunities() {
-        Topology commTopology = new Topology();
-        Map<Integer, MetaNode> metaNodes = new HashMap<>();
-        for(Integer node: this.keySet()) {
-            commTopology.put(node, this.get(node));
-            MetaNode metaNode = new MetaNode(new HashSet<>(), 0);
-            metaNode.innerNodes.add(node);
-            metaNodes.put(node, metaNode);
-        }
+    /**
+     * Core number of every node, see CoreDecomposition
+     * Complexity - O(N+M) - bucket peeling
+     */
+    public Map<Integer, Integer> coreNumbers() {
+        CompactTopology ct = freeze();
+        int[] cores = new CoreDecomposition(ct).coreNumbers();
+        Map<Integer, Integer> result = new HashMap<>();
+        for (int v = 0; v < cores.length; v++)
+            result.put(ct.nodeId(v), cores[v]);
+
+        return result;
+    }
 
-        boolean repeat = true;
-        while (repeat) {
-            repeat = false;
-            for (Entry<Integer, MetaNode> entry : metaNodes.entrySet()) {
-                int node = entry.getKey();
-                MetaNode metaNode = entry.getValue();
-                if (metaNode.innerEdgesCount < 0)
-                    continue;
-                float Q = modularCoeff(metaNode.innerNodes);
-                int mergeNode = -1;
-                for (int neigh : commTopology.get(node)) {
-                    Set<Integer> virtualCommunity = new HashSet<>(metaNode.innerNodes);
-                    virtualCommunity.addAll(metaNodes.get(neigh).innerNodes);
-                    float newQ = modularCoeff(virtualCommunity);
-                    if (newQ > Q) {
-                        mergeNode = neigh;
-                        Q = newQ;
-                    }
-                }
-                if (mergeNode >= 0) { //merge first MetaNode into neighbour
-                    metaNodes.get(mergeNode).innerNodes.addAll(metaNode.innerNodes);
-                    metaNode.innerEdgesCount = -1;
-
-                    Set<Integer> newNeighs = commTopology.get(mergeNode);
-                    newNeighs.addAll(commTopology.get(node));
-                    newNeighs.remove(node);
-                    newNeighs.remove(mergeNode);
-
-                    commTopology.removeNode(node);
-
-                    repeat = true;
-                }
+    /**
+     * Largest k with non-empty k-core
+     */
+    public int degeneracy() {
+        return cached("degeneracy", () -> new CoreDecomposition(freeze()).degeneracy());
+    }
+
+    /**
+     * Read-only view of subgraph where every node has at least k neighbours inside
+     */
+    public IntGraph kCore(int k) {
+        return new CoreDecomposition(freeze()).core(k);
+    }
+
+    /**
+     * Newman modularity of partition, nodes missing in communities are singletons,
+     * a node in two communities is an error
+     * For many candidate partitions keep one ModularityTracker and move nodes in it
+     */
+    public double modularity(Map<Integer, MetaNode> communities) {
+        CompactTopology ct = freeze();
+        int[] labels = new int[ct.nodesCount()];
+        Arrays.fill(labels, -1);
+        for (MetaNode metaNode : communities.values()) {
+            int label = -1;
+            for (int node : metaNode.innerNodes) {
+                int v = ct.indexOrThrow(node);
+                if (labels[v] >= 0)
+                    throw new RuntimeException("Node " + node + " is in two communities");
+                label = label < 0 ? v : label;
+                labels[v] = label;
             }
         }
+        for (int v = 0; v < labels.length; v++)
+            labels[v] = labels[v] < 0 ? v : labels[v];
 
+        return new ModularityTracker(ct, labels).modularity();
+    }
 
-        return metaNodes.entrySet().stream().filter(a -> a.getValue().innerEdgesCount >=0 )
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (x, y) -> y, HashMap::new));
+    /**
+     * Communities by multilevel modularity optimization, see Louvain
+     * Key - smallest node of community
+     * Complexity - O(M) per pass of local moving
+     */
+    public Map<Integer, MetaNode> findCommunities() {
+        CompactTopology ct = freeze();
+        return MetaNode.of(ct, new Louvain(ct).communities());
     }
 
     public int commInnerEdgesCount(Set<Integer> community) {
@@ -2,61 +2,85 @@ package topology;
 
 import topology.Topology;
 
-import java.util.List;
 import java.util.Set;
 import java.util.SplittableRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class TopologyGenerator {
 
-    final SplittableRandom random = new SplittableRandom();
+    final SplittableRandom random;
     private int m0 = 1;
     private int m1 = 2; // excluded
 
     public TopologyGenerator(int m0, int m1) {
+        this();
         this.m0 = m0;
         this.m1 = m1;
     }
 
     public TopologyGenerator() {
+        random = new SplittableRandom();
     }
 
     /**
-     * random growth for each new node add M=rand(m0,m1) edges to random nodes
-     * each node has a same probability to be chosen
+     * Generator which gives the same graphs for the same seed and sequence of calls
+     */
+    public TopologyGenerator(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * G(n,m): exactly edgesCount edges chosen uniformly among all node pairs, see ErdosRenyi
+     * Complexity - O(N+M)
      */
     public Topology genErdosRenyl(int nodesCount, int edgesCount) {
+        return genErdosRenyl(nodesCount, edgesCount, Topology::new);
+    }
 
-        Topology graph = new Topology();
-        for (int i = 0; i < nodesCount; i++) {
-            graph.addNode(i);
-        }
-        for (int i = 0; i < edgesCount; i++) {
-            int v1 = 0;
-            int v2 = 0;
-            while (v1 == v2 || graph.get(v1).contains(v2)) { // generate until definitely new edge would be added
-                v1 = random.nextInt(0, nodesCount);
-                v2 = random.nextInt(0, nodesCount);
+    /**
+     * Same as genErdosRenyl(int, int) with selectable adjacency backend, e.g. IntTopology::new
+     */
+    public <T extends MutableTopology> T genErdosRenyl(int nodesCount, int edgesCount, Supplier<T> backend) {
+        return fill(nodesCount, new ErdosRenyi(nodesCount).seed(random.nextLong()).gnm(edgesCount), backend);
+    }
 
-            }
-            graph.addEdge(v1, v2);
-        }
+    /**
+     * G(n,p): every node pair is an edge with given probability, see ErdosRenyi
+     * Complexity - O(N+M)
+     */
+    public Topology genErdosRenyl(int nodesCount, float probability) {
+        return genErdosRenyl(nodesCount, probability, Topology::new);
+    }
 
-        return graph;
+    /**
+     * Same as genErdosRenyl(int, float) with selectable adjacency backend, e.g. IntTopology::new
+     */
+    public <T extends MutableTopology> T genErdosRenyl(int nodesCount, float probability, Supplier<T> backend) {
+        return fill(nodesCount, new ErdosRenyi(nodesCount).seed(random.nextLong()).gnp(probability), backend);
     }
 
-    public Topology genErdosRenyl(int nodesCount, float probability) {
-        Topology graph = new Topology();
-        for (int i = 0; i < nodesCount; i++) {
-            graph.addNode(i);
+    /**
+     * Same as genErdosRenyl(int, int) straight into CSR snapshot, for graphs of millions of nodes
+     */
+    public CompactTopology genErdosRenylCompact(int nodesCount, long edgesCount) {
+        return new ErdosRenyi(nodesCount).seed(random.nextLong()).gnm(edgesCount).toCompact(nodesCount);
+    }
 
-            for (int j = 0; j < nodesCount; j++) {
-                if (i != j && random.nextFloat(0, 1) <= probability) {
-                    graph.addEdge(i, j);
-                }
-            }
-        }
+    /**
+     * Same as genErdosRenyl(int, float) straight into CSR snapshot, for graphs of millions of nodes
+     */
+    public CompactTopology genErdosRenylCompact(int nodesCount, double probability) {
+        return new ErdosRenyi(nodesCount).seed(random.nextLong()).gnp(probability).toCompact(nodesCount);
+    }
+
+    private static <T extends MutableTopology> T fill(int nodesCount, EdgeList edges, Supplier<T> backend) {
+        T graph = backend.get();
+        for (int i = 0; i < nodesCount; i++)
+            graph.addNode(i);
+        for (int i = 0; i < edges.size(); i++)
+            graph.addEdge(edges.node1(i), edges.node2(i));
 
         return graph;
     }
@@ -68,10 +92,17 @@ public class TopologyGenerator {
      * @return
      */
     public Topology genWattsStrogatz(int nodesCount, int k, float prob) {
+        return genWattsStrogatz(nodesCount, k, prob, Topology::new);
+    }
+
+    /**
+     * Same as genWattsStrogatz(int, int, float) with selectable adjacency backend, e.g. IntTopology::new
+     */
+    public <T extends MutableTopology> T genWattsStrogatz(int nodesCount, int k, float prob, Supplier<T> backend) {
         if (k < 0)
             throw new RuntimeException("K should be >= 0");
 
-        Topology tp = new Topology();
+        T tp = backend.get();
 
         // create ring
         for (int i = 1; i < nodesCount; i++) {
@@ -93,8 +124,8 @@ public class TopologyGenerator {
 
         // rewiring
         for (int i = 0; i < nodesCount; i++) {
-            List<Integer> neigs = tp.get(i).stream().toList();
-            for(Integer neigh : neigs) {
+            int[] neigs = tp.neighbors(i);
+            for(int neigh : neigs) {
                 if (random.nextFloat(1f) < prob) {
                     tp.removeEdge(neigh, i);
                     int next = random.nextInt(0, nodesCount);
@@ -112,31 +143,34 @@ public class TopologyGenerator {
     /**
      * random growth for each new node add M=mEdges edges to random existing nodes
      * but probability of node to be chosen as neighbour is proportional to each node degree
+     * Targets of one node are distinct, see PreferentialAttachment
+     * Complexity - O(N*m^2 + M)
      */
     public Topology genBarabasiAlbert(int nodesCount, int mEdges, int startGraphSize) {
-        Topology graph = genCompleteGraph(Math.min(nodesCount, startGraphSize));
-        int initSize = graph.size();
-        for (int i = initSize; i < nodesCount; i++) {
-
-            long sum = graph.values().stream().map(Set::size).map(Integer::longValue).reduce(0L, Long::sum);
-            int edges = mEdges;
-            while (edges > 0) {
-                edges--;
-                long probe = random.nextLong(0, sum);
-                int walkSum = 0;
-                for (int j = 0; j < graph.size(); j++) {
-                    walkSum += graph.get(j).size();
-                    if (walkSum >= probe) {
-                        graph.addEdge(i, j);
-                        break;
-                    }
-                }
-            }
-        }
+        int[] ends = barabasiAlbert(nodesCount, mEdges, startGraphSize).endpoints();
+        Topology graph = new Topology();
+        for (int i = 0; i < nodesCount; i++)
+            graph.addNode(i);
+        for (int i = 0; i < ends.length; i += 2)
+            graph.addEdge(ends[i], ends[i + 1]);
 
         return graph;
     }
 
+    /**
+     * Same as genBarabasiAlbert(int, int, int) straight into CSR snapshot, without boxed adjacency,
+     * for graphs of millions of nodes
+     */
+    public CompactTopology genBarabasiAlbertCompact(int nodesCount, int mEdges, int startGraphSize) {
+        return barabasiAlbert(nodesCount, mEdges, startGraphSize).toCompact();
+    }
+
+    private PreferentialAttachment barabasiAlbert(int nodesCount, int mEdges, int startGraphSize) {
+        return new PreferentialAttachment(nodesCount, mEdges)
+                .startGraphSize(startGraphSize)
+                .seed(random.nextLong());
+    }
+
     /**
      * Generate and return graph where every node connected to every another node
      * @param startGraphSize - number of nodes
@@ -144,8 +178,9 @@ public class TopologyGenerator {
     public Topology genCompleteGraph(int startGraphSize) {
         Topology graph = new Topology();
         for (int i = 0; i < startGraphSize; i++) {
-            graph.put(i, IntStream.range(0, startGraphSize).boxed().collect(Collectors.toSet()));
-            graph.get(i).remove(i);
+            Set<Integer> neighs = IntStream.range(0, startGraphSize).boxed().collect(Collectors.toSet());
+            neighs.remove(i);
+            graph.put(i, neighs);
         }
 
         return graph;
@@ -195,35 +230,30 @@ public class TopologyGenerator {
 
 
     /**
-     * random growth for each new node add M=rand(m0,m1) edges to random existing nodes
+     * random growth for each new node add M=rand(m0,m1)+1 edges to random existing nodes
      * but probability of node to be chosen as neighbour is proportional to square of each node degree
+     * Complexity - O((N+M)*log(N)), see NonlinearAttachment
      */
     public Topology generatePowerLawSquareTopology(int nodesCount, int startGraphSize) {
-        Topology graph = genCompleteGraph(Math.min(nodesCount, startGraphSize));
-        int initSize = graph.size();
-        for (int i = initSize; i < nodesCount; i++) {
-            int newEdges = random.nextInt(m0, m1);
-            long sum = graph.values().stream().map(a -> (long) a.size() * a.size()).reduce(0L, Long::sum);
-
-            while (newEdges >= 0) {
-                newEdges--;
-                long probe = random.nextLong(0, sum);
-                int walkSum = 0;
-                for (int j = 0; j < graph.size(); j++) {
-                    Set<Integer> node = graph.get(j);
-                    walkSum += node.size() * node.size();
-                    if (walkSum >= probe) {
-                        graph.addEdge(i, j);
-                        break;
-                    }
-                }
-            }
-        }
-
-        return graph;
+        NonlinearAttachment attachment = new NonlinearAttachment(nodesCount, AttachmentKernel.power(2))
+                .edgesPerNode(m0 + 1, m1 + 1)
+                .startGraphSize(startGraphSize)
+                .seed(random.nextLong());
+        return fill(nodesCount, attachment.edges(), Topology::new);
     }
 
-
+    /**
+     * Preferential attachment where node is chosen with probability proportional to kernel(node, degree),
+     * e.g. AttachmentKernel.power(alpha), shifted(a) or fitness(values)
+     * Complexity - O((N+M)*log(N)), see NonlinearAttachment
+     */
+    public Topology genNonlinearAttachment(int nodesCount, int mEdges, int startGraphSize, AttachmentKernel kernel) {
+        NonlinearAttachment attachment = new NonlinearAttachment(nodesCount, kernel)
+                .edgesPerNode(mEdges)
+                .startGraphSize(startGraphSize)
+                .seed(random.nextLong());
+        return fill(nodesCount, attachment.edges(), Topology::new);
+    }
 
     /**
      *
@@ -242,8 +272,8 @@ public class TopologyGenerator {
     }
 
     /**
-     * graph where degree of nodes are uniformly distributed
-     * TODO check it
+     * 6 edges between random pairs per node, degrees are about Poisson with mean 12
+     * For uniformly distributed degrees see generateUniformGraph(int, int, int)
      */
     public Topology generateUniformGraph(int nodesCount) {
         Topology graph = new Topology();
@@ -265,6 +295,57 @@ public class TopologyGenerator {
 
 
         return graph;
-    } //todo generate graph where degree of nodes are uniformly distributed and each node has minimum N nodes
+    }
+
+    /**
+     * graph where degree of nodes are uniformly distributed in [minDegree, maxDegree]
+     * Configuration model with self loops and multi-edges erased, so a few nodes may have
+     * slightly smaller degree, see ConfigurationModel
+     */
+    public Topology generateUniformGraph(int nodesCount, int minDegree, int maxDegree) {
+        if (minDegree < 0 || maxDegree < minDegree || maxDegree >= Math.max(1, nodesCount))
+            throw new RuntimeException("Expected 0 <= minDegree <= maxDegree < nodesCount");
+        int[] degrees = new int[nodesCount];
+        long sum = 0;
+        for (int i = 0; i < nodesCount; i++) {
+            degrees[i] = random.nextInt(minDegree, maxDegree + 1);
+            sum += degrees[i];
+        }
+        if (sum % 2 != 0) {
+            int i = random.nextInt(0, nodesCount);
+            degrees[i] += degrees[i] < maxDegree ? 1 : -1;
+        }
+
+        return genConfigurationModel(degrees);
+    }
+
+    /**
+     * Random graph with given degree of every node 0..n-1, sum of degrees should be even
+     * Self loops and multi-edges of stub pairing are erased, see ConfigurationModel
+     * Complexity - O(N+M*log(M))
+     */
+    public Topology genConfigurationModel(int[] degrees) {
+        ConfigurationModel model = new ConfigurationModel(degrees).seed(random.nextLong());
+        return fill(degrees.length, model.edges(), Topology::new);
+    }
+
+    /**
+     * Random graph with given expected degree of every node 0..n-1, see ChungLu
+     * Complexity - O(N+M)
+     */
+    public Topology genChungLu(int[] degrees) {
+        return fill(degrees.length, new ChungLu(degrees).seed(random.nextLong()).edges(), Topology::new);
+    }
+
+    /**
+     * Stochastic block model, block b is the next blockSizes[b] node ids after block b-1,
+     * pair from blocks a, b is an edge with probability p[a][b]
+     * The model is seeded, so topology() and communities() (ground truth partition)
+     * are of the same graph
+     * Complexity - O(N+M), see StochasticBlockModel
+     */
+    public StochasticBlockModel genStochasticBlockModel(int[] blockSizes, double[][] p) {
+        return new StochasticBlockModel(blockSizes, p).seed(random.nextLong());
+    }
 
 }
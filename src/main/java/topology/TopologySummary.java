@@ -0,0 +1,166 @@
+package topology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Structural statistics of a graph from one parallel pass over adjacency:
+ * counts, density, degree extremes, histogram and moments, degree assortativity.
+ * Workers take node chunks and keep their own sums, sums are merged at the end.
+ * Complexity - O((N+M)/parallelism)
+ */
+public final class TopologySummary {
+
+    private static final int CHUNK = 1024;
+
+    private final int nodesCount;
+    private final long edgesCount;
+    private final int minDegree;
+    private final int maxDegree;
+    private final long[] histogram;
+    private final double[] degreePowerSums; // sum of deg^k, k = 0..3
+    private final double edgeDegreeProducts; // sum of deg(v)*deg(u) over both directions of every edge
+
+    private TopologySummary(int nodesCount, Sums sums) {
+        this.nodesCount = nodesCount;
+        this.edgesCount = sums.degreeSum / 2;
+        this.minDegree = nodesCount == 0 ? 0 : sums.minDegree;
+        this.maxDegree = sums.maxDegree;
+        this.histogram = Arrays.copyOf(sums.histogram, maxDegree + 1);
+        this.degreePowerSums = sums.powers;
+        this.edgeDegreeProducts = sums.products;
+    }
+
+    public static TopologySummary of(IntGraph graph) {
+        return of(graph, Workers.defaultParallelism());
+    }
+
+    public static TopologySummary of(IntGraph graph, int parallelism) {
+        int n = graph.nodesCount();
+        AtomicInteger nextChunk = new AtomicInteger();
+        List<Sums> partial = Workers.run(Math.max(1, parallelism), worker -> {
+            Sums sums = new Sums();
+            NeighborCursor cursor = graph.cursor();
+            for (int from = nextChunk.getAndAdd(CHUNK); from < n; from = nextChunk.getAndAdd(CHUNK)) {
+                int to = Math.min(n, from + CHUNK);
+                for (int v = from; v < to; v++) {
+                    int deg = graph.degree(v);
+                    sums.node(deg);
+                    long neighbourDegrees = 0;
+                    cursor.reset(v);
+                    while (cursor.hasNext())
+                        neighbourDegrees += graph.degree(cursor.next());
+                    sums.products += (double) deg * neighbourDegrees;
+                }
+            }
+            return sums;
+        });
+
+        Sums total = partial.get(0);
+        for (int i = 1; i < partial.size(); i++)
+            total.merge(partial.get(i));
+        return new TopologySummary(n, total);
+    }
+
+    public int nodesCount() {
+        return nodesCount;
+    }
+
+    public long edgesCount() {
+        return edgesCount;
+    }
+
+    /**
+     * Share of present edges among all n(n-1)/2 possible
+     */
+    public double density() {
+        return nodesCount < 2 ? 0 : 2.0 * edgesCount / ((double) nodesCount * (nodesCount - 1));
+    }
+
+    public int minDegree() {
+        return minDegree;
+    }
+
+    public int maxDegree() {
+        return maxDegree;
+    }
+
+    public double meanDegree() {
+        return degreeMoment(1);
+    }
+
+    /**
+     * @return count of nodes with degree d at index d, 0..maxDegree
+     */
+    public long[] degreeHistogram() {
+        return histogram.clone();
+    }
+
+    public long nodesWithDegree(int degree) {
+        return degree >= 0 && degree < histogram.length ? histogram[degree] : 0;
+    }
+
+    /**
+     * Mean of deg^k over nodes, k = 0..3
+     */
+    public double degreeMoment(int k) {
+        if (k < 0 || k >= degreePowerSums.length)
+            throw new RuntimeException("Only moments 0..3 are kept");
+        return nodesCount == 0 ? 0 : degreePowerSums[k] / nodesCount;
+    }
+
+    /**
+     * Degree assortativity (Newman "Assortative mixing in networks"): Pearson correlation of
+     * degrees at the two ends of an edge, every edge counted in both directions.
+     * With S1 = sum deg, S2 = sum deg^2, S3 = sum deg^3 over nodes and
+     * Se = sum deg(v)*deg(u) over directed edges:
+     * r = (Se/S1 - (S2/S1)^2) / (S3/S1 - (S2/S1)^2), 0 if all edge ends have the same degree
+     */
+    public double assortativity() {
+        double s1 = degreePowerSums[1];
+        if (s1 == 0)
+            return 0;
+        double mean = degreePowerSums[2] / s1;
+        double variance = degreePowerSums[3] / s1 - mean * mean;
+        if (variance <= 1e-12 * Math.max(1, mean * mean))
+            return 0;
+        return (edgeDegreeProducts / s1 - mean * mean) / variance;
+    }
+
+    private static final class Sums {
+        long degreeSum;
+        int minDegree = Integer.MAX_VALUE;
+        int maxDegree;
+        long[] histogram = new long[16];
+        final double[] powers = new double[4];
+        double products;
+
+        void node(int deg) {
+            degreeSum += deg;
+            minDegree = Math.min(minDegree, deg);
+            maxDegree = Math.max(maxDegree, deg);
+            if (deg >= histogram.length)
+                histogram = Arrays.copyOf(histogram, Math.max(deg + 1, 2 * histogram.length));
+            histogram[deg]++;
+            double d = deg;
+            powers[0] += 1;
+            powers[1] += d;
+            powers[2] += d * d;
+            powers[3] += d * d * d;
+        }
+
+        void merge(Sums other) {
+            degreeSum += other.degreeSum;
+            minDegree = Math.min(minDegree, other.minDegree);
+            maxDegree = Math.max(maxDegree, other.maxDegree);
+            if (other.histogram.length > histogram.length)
+                histogram = Arrays.copyOf(histogram, other.histogram.length);
+            for (int d = 0; d < other.histogram.length; d++)
+                histogram[d] += other.histogram[d];
+            for (int k = 0; k < powers.length; k++)
+                powers[k] += other.powers[k];
+            products += other.products;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package topology;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triangle counting by degree ordering (Schank, Wagner "Finding, counting and listing all triangles")
+ * Every edge is oriented from lower to higher (degree, index) rank, so each node keeps only
+ * out-neighbours of higher rank, at most sqrt(2M) of them. Every triangle v < u < w is found
+ * once as common out-neighbour w of an oriented edge v-u by intersecting sorted lists,
+ * merge for similar sizes and galloping when one list is much longer.
+ * Nodes are shared between workers in chunks, each worker has its own counters,
+ * counters are summed at the end.
+ *
+ * Complexity - O(M*sqrt(M)/parallelism)
+ */
+public final class Triangles {
+
+    private static final int CHUNK = 256;
+    private static final int GALLOP_RATIO = 16;
+
+    private final CompactTopology graph;
+    private final int parallelism;
+    private long[] triangles;
+    private long total;
+
+    public Triangles(CompactTopology graph) {
+        this(graph, Workers.defaultParallelism());
+    }
+
+    public Triangles(CompactTopology graph, int parallelism) {
+        this.graph = graph;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @return count of triangles through every dense index
+     */
+    public long[] triangles() {
+        run();
+        return triangles;
+    }
+
+    /**
+     * Count of triangles in graph
+     */
+    public long total() {
+        run();
+        return total;
+    }
+
+    /**
+     * Local clustering 2*t(v)/deg(v)/(deg(v)-1), 0 for degree less than 2
+     * @return clustering of every dense index
+     */
+    public double[] clustering() {
+        run();
+        double[] clustering = new double[triangles.length];
+        for (int v = 0; v < clustering.length; v++) {
+            long deg = graph.degree(v);
+            if (deg > 1)
+                clustering[v] = 2.0 * triangles[v] / deg / (deg - 1);
+        }
+        return clustering;
+    }
+
+    /**
+     * Mean of local clustering over all nodes
+     */
+    public double averageClustering() {
+        double[] clustering = clustering();
+        if (clustering.length == 0)
+            return 0;
+        double sum = 0;
+        for (double c : clustering)
+            sum += c;
+        return sum / clustering.length;
+    }
+
+    /**
+     * Global clustering: 3*triangles/connected triples
+     */
+    public double transitivity() {
+        run();
+        long triples = 0;
+        for (int v = 0; v < graph.nodesCount(); v++) {
+            long deg = graph.degree(v);
+            triples += deg * (deg - 1) / 2;
+        }
+        return triples == 0 ? 0 : 3.0 * total / triples;
+    }
+
+    private void run() {
+        if (triangles != null)
+            return;
+
+        int n = graph.nodesCount();
+        int[] outOffsets = new int[n + 1];
+        int[] out = orient(outOffsets);
+        AtomicInteger nextChunk = new AtomicInteger();
+
+        List<long[]> partial = Workers.run(parallelism, worker -> {
+            long[] counts = new long[n];
+            for (int from = nextChunk.getAndAdd(CHUNK); from < n; from = nextChunk.getAndAdd(CHUNK)) {
+                int to = Math.min(n, from + CHUNK);
+                for (int v = from; v < to; v++) {
+                    for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                        int u = out[i];
+                        intersect(out, outOffsets[v], outOffsets[v + 1], outOffsets[u], outOffsets[u + 1],
+                                v, u, counts);
+                    }
+                }
+            }
+            return counts;
+        });
+
+        triangles = partial.get(0);
+        for (int i = 1; i < partial.size(); i++) {
+            long[] counts = partial.get(i);
+            for (int v = 0; v < n; v++)
+                triangles[v] += counts[v];
+        }
+        long sum = 0;
+        for (long t : triangles)
+            sum += t;
+        total = sum / 3;
+    }
+
+    private boolean higher(int u, int v) {
+        int du = graph.degree(u);
+        int dv = graph.degree(v);
+        return du > dv || (du == dv && u > v);
+    }
+
+    /**
+     * Keeps neighbours of higher rank, lists stay sorted by index
+     */
+    private int[] orient(int[] outOffsets) {
+        int n = graph.nodesCount();
+        int[] offsets = graph.offsets();
+        int[] neighbors = graph.neighbors();
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (higher(neighbors[i], v))
+                    count++;
+            }
+            outOffsets[v + 1] = outOffsets[v] + count;
+        }
+
+        int[] out = new int[outOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            int pos = outOffsets[v];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (higher(neighbors[i], v))
+                    out[pos++] = neighbors[i];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Adds a triangle to v, u and w for every w common to out[a..aEnd) and out[b..bEnd)
+     */
+    private static void intersect(int[] out, int a, int aEnd, int b, int bEnd, int v, int u, long[] counts) {
+        if (aEnd - a > bEnd - b) {
+            int t = a; a = b; b = t;
+            t = aEnd; aEnd = bEnd; bEnd = t;
+        }
+        int small = aEnd - a;
+        if (small == 0)
+            return;
+
+        if ((bEnd - b) / small < GALLOP_RATIO) {
+            while (a < aEnd && b < bEnd) {
+                if (out[a] < out[b])
+                    a++;
+                else if (out[a] > out[b])
+                    b++;
+                else {
+                    hit(out[a], v, u, counts);
+                    a++;
+                    b++;
+                }
+            }
+            return;
+        }
+
+        for (; a < aEnd && b < bEnd; a++) {
+            int w = out[a];
+            // exponential search for the first position in b list not less than w
+            int step = 1;
+            int hi = b;
+            while (hi < bEnd && out[hi] < w) {
+                b = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int lo = b;
+            hi = Math.min(hi, bEnd);
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (out[mid] < w)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            b = lo;
+            if (b < bEnd && out[b] == w) {
+                hit(w, v, u, counts);
+                b++;
+            }
+        }
+    }
+
+    private static void hit(int w, int v, int u, long[] counts) {
+        counts[v]++;
+        counts[u]++;
+        counts[w]++;
+    }
+}
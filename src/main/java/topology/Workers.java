@@ -0,0 +1,108 @@
+package topology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs one task per worker, for engines which keep per-thread workspaces
+ * and accumulators and merge them at the end
+ * Tasks go to one shared pool of daemon threads created on first use, so engines
+ * may call run() once per iteration without paying for thread start and shutdown.
+ */
+final class Workers {
+
+    private static volatile ExecutorService pool;
+
+    private Workers() {
+    }
+
+    private static ExecutorService pool() {
+        ExecutorService result = pool;
+        if (result == null) {
+            synchronized (Workers.class) {
+                result = pool;
+                if (result == null) {
+                    AtomicInteger threads = new AtomicInteger();
+                    result = Executors.newFixedThreadPool(Math.max(2, defaultParallelism()), task -> {
+                        Thread thread = new WorkerThread(task, "networkj-worker-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    pool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static final class WorkerThread extends Thread {
+        WorkerThread(Runnable task, String name) {
+            super(task, name);
+        }
+    }
+
+    static int defaultParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Splits nodes into contiguous ranges with about the same count of adjacency entries
+     * @return range i is [bounds[i], bounds[i+1])
+     */
+    static int[] ranges(int[] offsets, int parts) {
+        int n = offsets.length - 1;
+        int[] bounds = new int[parts + 1];
+        long total = (long) offsets[n] + n; // every node costs at least one step
+        int v = 0;
+        for (int i = 1; i < parts; i++) {
+            long target = total * i / parts;
+            while (v < n && (long) offsets[v] + v < target)
+                v++;
+            bounds[i] = v;
+        }
+        bounds[parts] = n;
+        return bounds;
+    }
+
+    /**
+     * Tasks must not wait for each other: with count above pool size some of them are queued
+     * Called from a pool thread the tasks run inline, so nested calls can't exhaust the pool
+     * @return results of task(0..count-1) in worker order
+     */
+    static <T> List<T> run(int count, IntFunction<T> task) {
+        List<T> results = new ArrayList<>(count);
+        if (count <= 1 || Thread.currentThread() instanceof WorkerThread) {
+            for (int i = 0; i < Math.max(1, count); i++)
+                results.add(task.apply(i));
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                int worker = i;
+                futures.add(pool().submit(() -> task.apply(worker)));
+            }
+            for (Future<T> future : futures)
+                results.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            for (Future<T> future : futures)
+                future.cancel(true); // no-op for finished ones, stops the rest after a failure
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,65 @@
+package utils;
+
+/**
+ * Fenwick (binary indexed) tree of non-negative weights for weighted sampling
+ * Change of a weight and search of the index where a running sum crosses a value are O(log n)
+ */
+public class FenwickTree {
+
+  private final double[] tree; // 1-based partial sums
+  private final double[] weights;
+  private final int top; // highest power of two <= size
+
+  public FenwickTree(int size) {
+    tree = new double[size + 1];
+    weights = new double[size];
+    top = size == 0 ? 0 : Integer.highestOneBit(size);
+  }
+
+  public int size() {
+    return weights.length;
+  }
+
+  public double get(int index) {
+    return weights[index];
+  }
+
+  public void set(int index, double weight) {
+    if (weight < 0 || Double.isNaN(weight))
+      throw new RuntimeException("Weight should be >= 0, got " + weight);
+    double delta = weight - weights[index];
+    weights[index] = weight;
+    for (int i = index + 1; i < tree.length; i += i & -i)
+      tree[i] += delta;
+  }
+
+  /**
+   * Sum of weights of indexes 0..index-1
+   */
+  public double prefix(int index) {
+    double sum = 0;
+    for (int i = index; i > 0; i -= i & -i)
+      sum += tree[i];
+    return sum;
+  }
+
+  public double total() {
+    return prefix(weights.length);
+  }
+
+  /**
+   * Smallest index whose running sum is above value, so for value uniform in [0, total())
+   * an index is found with probability proportional to its weight
+   */
+  public int find(double value) {
+    int pos = 0;
+    for (int step = top; step > 0; step >>= 1) {
+      int next = pos + step;
+      if (next < tree.length && tree[next] <= value) {
+        pos = next;
+        value -= tree[next];
+      }
+    }
+    return Math.min(pos, weights.length - 1);
+  }
+}
@@ -0,0 +1,381 @@
+package utils;
+
+import topology.CompactTopology;
+import topology.EdgeList;
+import topology.Topology;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming loader of real network datasets into CompactTopology
+ * Supported formats:
+ * - edge list: "src dst [anything]" per line, '#' and '%' comment lines (SNAP, KONECT)
+ * - METIS: header "n m [fmt [ncon]]", line i lists neighbours of node i, nodes are 1..n
+ * - Pajek: *Vertices n, *Edges / *Arcs pairs, *Edgeslist / *Arcslist lists, nodes are 1..n
+ * Each of them may be gzipped, compression is detected by magic bytes.
+ * Lines are parsed straight from bytes without String allocation, edges are
+ * symmetrized and duplicates and self loops dropped by EdgeList.
+ */
+public class GraphImporter {
+
+  private final int parallelism;
+  private final int blockSize;
+
+  public GraphImporter() {
+    this(Runtime.getRuntime().availableProcessors(), 8 << 20);
+  }
+
+  /**
+   * @param parallelism - threads parsing edge list blocks
+   * @param blockSize - bytes per parsed block, lines longer than block are handled by growing it
+   */
+  public GraphImporter(int parallelism, int blockSize) {
+    this.parallelism = Math.max(1, parallelism);
+    this.blockSize = Math.max(16, blockSize);
+  }
+
+  /**
+   * Format by file extension (.gz suffix is ignored): .graph/.metis - METIS,
+   * .net/.pajek - Pajek, anything else - edge list
+   */
+  public CompactTopology read(Path path) throws IOException {
+    String name = path.getFileName().toString().toLowerCase();
+    if (name.endsWith(".gz"))
+      name = name.substring(0, name.length() - 3);
+    if (name.endsWith(".graph") || name.endsWith(".metis"))
+      return readMetis(path);
+    if (name.endsWith(".net") || name.endsWith(".pajek"))
+      return readPajek(path);
+    return readEdgeList(path);
+  }
+
+  public Topology readTopology(Path path) throws IOException {
+    return read(path).toTopology();
+  }
+
+  static InputStream open(Path path) throws IOException {
+    InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+    in.mark(2);
+    int b1 = in.read();
+    int b2 = in.read();
+    in.reset();
+    if (b1 == 0x1f && b2 == 0x8b)
+      return new GZIPInputStream(in, 1 << 16);
+    return in;
+  }
+
+  /**
+   * Input is cut into blocks on line boundaries, blocks are parsed in parallel
+   * while next ones are being read (and decompressed).
+   * Node ids are kept as they are in file.
+   */
+  public CompactTopology readEdgeList(Path path) throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+    Semaphore inFlight = new Semaphore(parallelism * 2); // bounds memory of read but not parsed blocks
+    List<Future<EdgeList>> parts = new ArrayList<>();
+    try (InputStream in = open(path)) {
+      Blocks blocks = new Blocks(in, blockSize);
+      while (blocks.next()) {
+        inFlight.acquire();
+        byte[] block = blocks.block;
+        int end = blocks.end;
+        parts.add(pool.submit(() -> {
+          try {
+            return parseEdgeList(block, 0, end);
+          } finally {
+            inFlight.release();
+          }
+        }));
+      }
+
+      List<EdgeList> edges = new ArrayList<>(parts.size());
+      for (Future<EdgeList> part : parts)
+        edges.add(part.get());
+      return EdgeList.concat(edges).toCompact();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading " + path);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+      throw new IOException(e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  static EdgeList parseEdgeList(byte[] bytes, int from, int to) throws IOException {
+    EdgeList edges = new EdgeList((to - from) / 8);
+    Tokens line = new Tokens(null);
+    line.wrap(bytes, from, to);
+    while (line.nextLine()) {
+      if (line.isBlankOrComment())
+        continue;
+      int src = line.nextInt();
+      int dst = line.nextInt();
+      edges.add(src, dst);
+    }
+
+    return edges;
+  }
+
+  /**
+   * Sequential: line i of METIS file depends on count of lines before it
+   * Vertex sizes, vertex weights and edge weights from fmt are skipped
+   */
+  public CompactTopology readMetis(Path path) throws IOException {
+    try (InputStream in = open(path)) {
+      Tokens line = new Tokens(new Blocks(in, blockSize));
+
+      do {
+        if (!line.nextLine())
+          throw new RuntimeException("Empty METIS file " + path);
+      } while (line.isBlankOrComment()); // after the header a blank line is an isolated node
+      int n = line.nextInt();
+      long m = line.nextLong();
+      int fmt = line.hasToken() ? line.nextInt() : 0;
+      int ncon = line.hasToken() ? line.nextInt() : 1;
+      boolean vertexSizes = fmt / 100 % 10 == 1;
+      boolean vertexWeights = fmt / 10 % 10 == 1;
+      boolean edgeWeights = fmt % 10 == 1;
+
+      EdgeList edges = new EdgeList((int) Math.min(Integer.MAX_VALUE - 8, m));
+      int node = 0;
+      while (node < n && line.nextLine()) {
+        if (line.isComment())
+          continue;
+        node++;
+        if (vertexSizes)
+          line.nextLong();
+        if (vertexWeights) {
+          for (int i = 0; i < ncon; i++)
+            line.nextLong();
+        }
+        while (line.hasToken()) {
+          edges.add(node, line.nextInt());
+          if (edgeWeights)
+            line.nextLong();
+        }
+      }
+      if (node < n)
+        throw new RuntimeException("METIS file " + path + " has " + node + " of " + n + " node lines");
+
+      return edges.toCompact(IntStream.rangeClosed(1, n).toArray());
+    }
+  }
+
+  /**
+   * Sequential, sections change meaning of following lines
+   * Vertex labels and edge weights are skipped, arcs are treated as undirected edges,
+   * *Network header and other sections are skipped
+   */
+  public CompactTopology readPajek(Path path) throws IOException {
+    try (InputStream in = open(path)) {
+      Tokens line = new Tokens(new Blocks(in, blockSize));
+
+      EdgeList edges = new EdgeList();
+      int n = -1;
+      int section = 0; // 0 - vertices or unknown, 1 - pairs, 2 - lists
+      while (line.nextLine()) {
+        if (line.isBlankOrComment())
+          continue;
+        if (line.startsWithIgnoreCase("*vertices")) {
+          line.skipToken();
+          n = line.nextInt();
+          section = 0;
+        } else if (line.startsWithIgnoreCase("*edgeslist") || line.startsWithIgnoreCase("*arcslist")) {
+          section = 2;
+        } else if (line.startsWithIgnoreCase("*edges") || line.startsWithIgnoreCase("*arcs")) {
+          section = 1;
+        } else if (line.startsWithIgnoreCase("*")) {
+          section = 0; // *Network header or a section without edges, its lines are skipped
+        } else if (section == 1) {
+          edges.add(line.nextInt(), line.nextInt());
+        } else if (section == 2) {
+          int src = line.nextInt();
+          while (line.hasToken())
+            edges.add(src, line.nextInt());
+        }
+      }
+      if (n < 0)
+        throw new RuntimeException("Pajek file " + path + " has no *Vertices section");
+
+      return edges.toCompact(IntStream.rangeClosed(1, n).toArray());
+    }
+  }
+
+  /**
+   * Reads input in blocks which end on a line boundary, the tail is carried to the next block
+   * Every block is a new array, so blocks can be handed over to other threads
+   */
+  static final class Blocks {
+    private final InputStream in;
+    private final int blockSize;
+    private byte[] carry = new byte[0];
+    private boolean eof;
+    byte[] block;
+    int end;
+
+    Blocks(InputStream in, int blockSize) {
+      this.in = in;
+      this.blockSize = blockSize;
+    }
+
+    boolean next() throws IOException {
+      if (eof)
+        return false;
+      block = Arrays.copyOf(carry, Math.max(blockSize, carry.length * 2));
+      int len = carry.length;
+      while (true) {
+        len += in.readNBytes(block, len, block.length - len);
+        if (len < block.length) {
+          eof = true;
+          end = len;
+          break;
+        }
+        end = lastIndexOf(block, len, (byte) '\n') + 1;
+        if (end > 0)
+          break;
+        block = Arrays.copyOf(block, block.length * 2); // line longer than block
+      }
+      carry = Arrays.copyOfRange(block, end, len);
+      return end > 0;
+    }
+
+    private static int lastIndexOf(byte[] bytes, int len, byte value) {
+      for (int i = len - 1; i >= 0; i--) {
+        if (bytes[i] == value)
+          return i;
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Cursor over lines of byte blocks and whitespace separated tokens inside current line
+   */
+  static final class Tokens {
+    private final Blocks source; // null if there is only one wrapped range
+    private byte[] bytes;
+    private int end;
+    private int next; // start of next line
+    private int pos; // position inside current line
+    private int lineEnd;
+
+    Tokens(Blocks source) {
+      this.source = source;
+    }
+
+    void wrap(byte[] bytes, int from, int to) {
+      this.bytes = bytes;
+      this.next = from;
+      this.end = to;
+    }
+
+    boolean nextLine() throws IOException {
+      if (next >= end) {
+        if (source == null || !source.next())
+          return false;
+        wrap(source.block, 0, source.end);
+      }
+      pos = next;
+      lineEnd = pos;
+      while (lineEnd < end && bytes[lineEnd] != '\n')
+        lineEnd++;
+      next = lineEnd + 1;
+      if (lineEnd > pos && bytes[lineEnd - 1] == '\r')
+        lineEnd--;
+      return true;
+    }
+
+    private static boolean isSeparator(byte b) {
+      return b == ' ' || b == '\t' || b == ',' || b == ';';
+    }
+
+    private void skipSeparators() {
+      while (pos < lineEnd && isSeparator(bytes[pos]))
+        pos++;
+    }
+
+    boolean hasToken() {
+      skipSeparators();
+      return pos < lineEnd;
+    }
+
+    boolean isComment() {
+      skipSeparators();
+      return pos < lineEnd && (bytes[pos] == '#' || bytes[pos] == '%');
+    }
+
+    boolean isBlankOrComment() {
+      return !hasToken() || isComment();
+    }
+
+    boolean startsWithIgnoreCase(String prefix) {
+      skipSeparators();
+      if (lineEnd - pos < prefix.length())
+        return false;
+      for (int i = 0; i < prefix.length(); i++) {
+        if (Character.toLowerCase(bytes[pos + i]) != prefix.charAt(i))
+          return false;
+      }
+      return true;
+    }
+
+    void skipToken() {
+      skipSeparators();
+      while (pos < lineEnd && !isSeparator(bytes[pos]))
+        pos++;
+    }
+
+    int nextInt() {
+      long value = nextLong();
+      if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+        throw new RuntimeException("Node id " + value + " doesn't fit into int");
+      return (int) value;
+    }
+
+    /**
+     * Integer part of the token, fraction (e.g. of a weight) is skipped
+     */
+    long nextLong() {
+      skipSeparators();
+      if (pos >= lineEnd)
+        throw new RuntimeException("Unexpected end of line: " + currentLine());
+      boolean negative = bytes[pos] == '-';
+      if (negative || bytes[pos] == '+')
+        pos++;
+      int start = pos;
+      long value = 0;
+      while (pos < lineEnd && bytes[pos] >= '0' && bytes[pos] <= '9')
+        value = value * 10 + (bytes[pos++] - '0');
+      if (pos == start)
+        throw new RuntimeException("Number expected: " + currentLine());
+      while (pos < lineEnd && !isSeparator(bytes[pos]))
+        pos++;
+      return negative ? -value : value;
+    }
+
+    private String currentLine() {
+      int start = pos;
+      while (start > 0 && bytes[start - 1] != '\n')
+        start--;
+      return new String(bytes, start, lineEnd - start);
+    }
+  }
+}
@@ -3,9 +3,13 @@ package utils;
 import topology.Topology;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
 
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 
 public class GraphUtils {
@@ -64,5 +68,40 @@ public class GraphUtils {
     }
   }
 
+  /**
+   * Degree sequence from histogram written by graphDegreeStatToCsv, header "degrees,count"
+   * Nodes are ordered by degree ascending, e.g. for ConfigurationModel or ChungLu
+   */
+  public int[] readDegreeSequence(String filename) throws IOException {
+    long[] histogram = new long[16];
+    try (Reader in = new FileReader(filename)) {
+      for (CSVRecord record : CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build().parse(in)) {
+        int degree = Integer.parseInt(record.get("degrees").trim());
+        long count = Long.parseLong(record.get("count").trim());
+        if (degree < 0 || count < 0)
+          throw new RuntimeException("Negative degree or count in " + filename + ": " + record);
+        if (degree >= histogram.length)
+          histogram = Arrays.copyOf(histogram, Math.max(degree + 1, histogram.length * 2));
+        histogram[degree] += count;
+      }
+    }
+    return degreeSequence(histogram);
+  }
 
+  /**
+   * @param histogram - count of nodes with degree d at index d
+   * @return degree of every node, ascending
+   */
+  public int[] degreeSequence(long[] histogram) {
+    long nodes = Arrays.stream(histogram).sum();
+    if (nodes > Integer.MAX_VALUE - 8)
+      throw new RuntimeException("Too many nodes in histogram: " + nodes);
+    int[] degrees = new int[(int) nodes];
+    int pos = 0;
+    for (int d = 0; d < histogram.length; d++) {
+      Arrays.fill(degrees, pos, pos + (int) histogram[d], d);
+      pos += (int) histogram[d];
+    }
+    return degrees;
+  }
 }
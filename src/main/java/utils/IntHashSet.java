@@ -0,0 +1,128 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open addressing set of primitive ints with linear probing and backward shift deletion
+ * No boxing and no per-entry objects, whole set is a single int[]
+ * Integer.MIN_VALUE is reserved as empty slot marker and can't be stored
+ */
+public class IntHashSet {
+
+  public static final int EMPTY = Integer.MIN_VALUE;
+
+  private int[] keys;
+  private int size;
+  private int shift;
+
+  public IntHashSet() {
+    this(2);
+  }
+
+  public IntHashSet(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 4 / 3) * 2 - 1);
+    allocate(Math.max(4, capacity));
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    shift = 32 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  static int mix(int key, int shift) {
+    return (key * 0x9E3779B9) >>> shift; // fibonacci hashing
+  }
+
+  private int slot(int key) {
+    int mask = keys.length - 1;
+    int i = mix(key, shift);
+    while (keys[i] != EMPTY && keys[i] != key)
+      i = (i + 1) & mask;
+    return i;
+  }
+
+  public boolean contains(int key) {
+    return key != EMPTY && keys[slot(key)] == key;
+  }
+
+  public boolean add(int key) {
+    if (key == EMPTY)
+      throw new RuntimeException("Integer.MIN_VALUE can't be stored in IntHashSet");
+    int i = slot(key);
+    if (keys[i] == key)
+      return false;
+    keys[i] = key;
+    if (++size * 4 > keys.length * 3)
+      rehash(keys.length * 2);
+    return true;
+  }
+
+  public boolean remove(int key) {
+    if (key == EMPTY)
+      return false;
+    int mask = keys.length - 1;
+    int i = slot(key);
+    if (keys[i] != key)
+      return false;
+
+    // backward shift deletion keeps probe sequences without tombstones
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      if (keys[j] == EMPTY)
+        break;
+      int ideal = mix(keys[j], shift);
+      if (((j - ideal) & mask) >= ((j - i) & mask)) {
+        keys[i] = keys[j];
+        i = j;
+      }
+    }
+    keys[i] = EMPTY;
+    size--;
+    return true;
+  }
+
+  private void rehash(int capacity) {
+    int[] old = keys;
+    allocate(capacity);
+    for (int key : old) {
+      if (key != EMPTY)
+        keys[slot(key)] = key;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    size = 0;
+  }
+
+  public void forEach(IntConsumer action) {
+    for (int key : keys) {
+      if (key != EMPTY)
+        action.accept(key);
+    }
+  }
+
+  /**
+   * Copy of the content in arbitrary order
+   */
+  public int[] toArray() {
+    int[] result = new int[size];
+    int i = 0;
+    for (int key : keys) {
+      if (key != EMPTY)
+        result[i++] = key;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,123 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing int -> int map with linear probing and backward shift deletion
+ * Same layout as IntHashSet plus parallel values array
+ * Integer.MIN_VALUE is reserved as empty key marker and can't be used as a key
+ */
+public class IntIntHashMap {
+
+  public static final int EMPTY = IntHashSet.EMPTY;
+
+  private int[] keys;
+  private int[] values;
+  private int size;
+  private int shift;
+
+  public IntIntHashMap() {
+    this(16);
+  }
+
+  public IntIntHashMap(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2, expectedSize * 4 / 3) * 2 - 1);
+    allocate(Math.max(4, capacity));
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    shift = 32 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  private int slot(int key) {
+    int mask = keys.length - 1;
+    int i = IntHashSet.mix(key, shift);
+    while (keys[i] != EMPTY && keys[i] != key)
+      i = (i + 1) & mask;
+    return i;
+  }
+
+  public boolean containsKey(int key) {
+    return key != EMPTY && keys[slot(key)] == key;
+  }
+
+  /**
+   * @return value of key or defaultValue if there is no such key
+   */
+  public int get(int key, int defaultValue) {
+    if (key == EMPTY)
+      return defaultValue;
+    int i = slot(key);
+    return keys[i] == key ? values[i] : defaultValue;
+  }
+
+  public void put(int key, int value) {
+    if (key == EMPTY)
+      throw new RuntimeException("Integer.MIN_VALUE can't be used as IntIntHashMap key");
+    int i = slot(key);
+    values[i] = value;
+    if (keys[i] == key)
+      return;
+    keys[i] = key;
+    if (++size * 4 > keys.length * 3)
+      rehash(keys.length * 2);
+  }
+
+  public boolean remove(int key) {
+    if (key == EMPTY)
+      return false;
+    int mask = keys.length - 1;
+    int i = slot(key);
+    if (keys[i] != key)
+      return false;
+
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      if (keys[j] == EMPTY)
+        break;
+      int ideal = IntHashSet.mix(keys[j], shift);
+      if (((j - ideal) & mask) >= ((j - i) & mask)) {
+        keys[i] = keys[j];
+        values[i] = values[j];
+        i = j;
+      }
+    }
+    keys[i] = EMPTY;
+    size--;
+    return true;
+  }
+
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        int j = slot(oldKeys[i]);
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Copy of the keys in arbitrary order
+   */
+  public int[] keys() {
+    int[] result = new int[size];
+    int i = 0;
+    for (int key : keys) {
+      if (key != EMPTY)
+        result[i++] = key;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,82 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing set of primitive longs with linear probing, insert-only counterpart of IntHashSet
+ * for keys which don't fit into int, e.g. pair indexes of edges
+ * Long.MIN_VALUE is reserved as empty slot marker and can't be stored
+ */
+public class LongHashSet {
+
+  public static final long EMPTY = Long.MIN_VALUE;
+
+  private long[] keys;
+  private int size;
+  private int shift;
+
+  public LongHashSet() {
+    this(2);
+  }
+
+  public LongHashSet(int expectedSize) {
+    int capacity = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(2L, expectedSize * 4L / 3) * 2 - 1));
+    allocate(Math.max(4, capacity));
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    Arrays.fill(keys, EMPTY);
+    shift = 64 - Integer.numberOfTrailingZeros(capacity);
+  }
+
+  static int mix(long key, int shift) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift); // fibonacci hashing
+  }
+
+  private int slot(long key) {
+    int mask = keys.length - 1;
+    int i = mix(key, shift);
+    while (keys[i] != EMPTY && keys[i] != key)
+      i = (i + 1) & mask;
+    return i;
+  }
+
+  public boolean contains(long key) {
+    return key != EMPTY && keys[slot(key)] == key;
+  }
+
+  public boolean add(long key) {
+    if (key == EMPTY)
+      throw new RuntimeException("Long.MIN_VALUE can't be stored in LongHashSet");
+    int i = slot(key);
+    if (keys[i] == key)
+      return false;
+    keys[i] = key;
+    if (++size * 4L > keys.length * 3L)
+      rehash(keys.length * 2);
+    return true;
+  }
+
+  private void rehash(int capacity) {
+    long[] old = keys;
+    allocate(capacity);
+    for (long key : old) {
+      if (key != EMPTY)
+        keys[slot(key)] = key;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    size = 0;
+  }
+}
@@ -0,0 +1,67 @@
+import org.junit.Test;
+import topology.ApproxBetweenness;
+import topology.Betweenness;
+import topology.CompactTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApproxBetweennessTest {
+
+    TopologyGenerator tg = new TopologyGenerator(42); // seeded, error bounds hold only with probability 1-delta
+
+    @Test
+    public void errorBoundTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(300, 2, 3).freeze();
+        double[] exact = new Betweenness(ct).nodes();
+        ApproxBetweenness approx = new ApproxBetweenness(ct).accuracy(0.02, 0.1).seed(7);
+        double[] estimate = approx.run();
+
+        assertEquals(approx.samplesRequired(), approx.samplesDrawn());
+        double pairs = 300 * 299 / 2.0;
+        for (int v = 0; v < exact.length; v++)
+            assertEquals(exact[v] / pairs, estimate[v] / pairs, 0.02);
+    }
+
+    @Test
+    public void starTest() {
+        Topology tp = new Topology();
+        for (int i = 1; i <= 10; i++)
+            tp.addEdge(0, i);
+
+        var bc = tp.approxBetweennessCentrality(0.05, 0.1);
+        assertEquals(45f, bc.get(0), 45 * 0.1f);
+        assertEquals(0f, bc.get(5), 0);
+    }
+
+    @Test
+    public void earlyStopTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(2000, 2, 3).freeze();
+        ApproxBetweenness approx = new ApproxBetweenness(ct).accuracy(0.002, 0.1)
+                .stopWhenTopStable(1, 2).seed(1);
+        approx.run();
+
+        assertTrue(approx.samplesDrawn() < approx.samplesRequired());
+    }
+
+    @Test
+    public void seedTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(500, 2, 3).freeze();
+        double[] first = new ApproxBetweenness(ct).accuracy(0.05, 0.1).parallelism(4).seed(3).run();
+        double[] second = new ApproxBetweenness(ct).accuracy(0.05, 0.1).parallelism(4).seed(3).run();
+
+        assertArrayEquals(first, second, 0);
+    }
+
+    @Test
+    public void largeTimeBudgetTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(200, 2, 3).freeze();
+        ApproxBetweenness approx = new ApproxBetweenness(ct).accuracy(0.1, 0.1).timeBudget(Long.MAX_VALUE / 2).seed(5);
+        approx.run();
+
+        assertEquals(approx.samplesRequired(), approx.samplesDrawn());
+    }
+}
@@ -0,0 +1,55 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CompactTopologyTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void csrLayoutTest() {
+        Topology tp = new Topology();
+        tp.addEdge(10, 30);
+        tp.addEdge(10, 20);
+        tp.addNode(40);
+
+        CompactTopology ct = tp.freeze();
+
+        assertEquals(4, ct.nodesCount());
+        assertEquals(2, ct.edgesCount());
+        assertArrayEquals(new int[]{0, 2, 3, 4, 4}, ct.offsets());
+        assertArrayEquals(new int[]{1, 2, 0, 0}, ct.neighbors());
+        assertEquals(30, ct.nodeId(2));
+        assertEquals(2, ct.indexOf(30));
+        assertEquals(-1, ct.indexOf(15));
+    }
+
+    @Test
+    public void toTopologyTest() {
+        Topology tp = tg.genWattsStrogatz(50, 2, 0.3f);
+        tp.addNode(100);
+
+        assertEquals(tp, tp.freeze().toTopology());
+    }
+
+    @Test
+    public void metricsMatchTopologyTest() {
+        Topology tp = tg.genCompleteGraph(5);
+        tp.merge(tg.genCompleteGraph(3));
+        tp.addEdge(1, 100);
+
+        CompactTopology ct = tp.freeze();
+
+        assertEquals(6, ct.sizeLLC());
+        assertEquals(2, ct.connectedComponents(true).size());
+        assertEquals(2, ct.diameter());
+        assertEquals(2, ct.eccentricity(100));
+        assertEquals(1f, ct.clusteringCoeff(6), 0.001f);
+        assertEquals(0.6f, ct.clusteringCoeff(1), 0.001f);
+        assertEquals(-1f, ct.avgShortestPathLength(), 0);
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Components;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ComponentsTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void labelsTest() {
+        Topology tp = new Topology();
+        tp.addEdge(5, 3);
+        tp.addEdge(3, 9);
+        tp.addEdge(1, 2);
+        tp.addNode(7);
+        CompactTopology ct = tp.freeze(); // indexes: 1-0, 2-1, 3-2, 5-3, 7-4, 9-5
+
+        Components components = new Components(ct);
+        assertEquals(3, components.count());
+        assertEquals(2, components.largest());
+        assertEquals(3, components.largestSize());
+        assertEquals(0, components.labels()[1]);
+        assertEquals(2, components.labels()[5]);
+
+        assertEquals(Map.of(1, 2, 3, 3, 7, 1), tp.connectedComponents(false));
+        assertEquals(Map.of(1, 2, 3, 3), tp.connectedComponents(true));
+    }
+
+    @Test
+    public void matchesBfsTest() {
+        CompactTopology ct = tg.genErdosRenyl(5000, 2400).freeze();
+        int[] labels = new Components(ct, 4).labels();
+
+        int[] expected = new int[ct.nodesCount()];
+        Arrays.fill(expected, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < expected.length; s++) {
+            if (expected[s] >= 0)
+                continue;
+            expected[s] = s;
+            queue.add(s);
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                for (int i = ct.offsets()[v]; i < ct.offsets()[v + 1]; i++) {
+                    int u = ct.neighbors()[i];
+                    if (expected[u] < 0) {
+                        expected[u] = s;
+                        queue.add(u);
+                    }
+                }
+            }
+        }
+        assertArrayEquals(expected, labels);
+    }
+
+    @Test
+    public void largestConnectedComponentTest() {
+        Topology tp = new Topology();
+        tp.addNode(4);
+        tp.addNode(2);
+        Topology lcc = tp.largestConnectedComponent();
+        assertEquals(1, lcc.size());
+        assertTrue(lcc.containsKey(2));
+    }
+}
@@ -0,0 +1,53 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.CompressedTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedTopologyTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void roundTripTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(2000, 3, 5).freeze();
+        CompressedTopology compressed = CompressedTopology.of(ct);
+
+        assertEquals(ct.nodesCount(), compressed.nodesCount());
+        assertEquals(ct.edgesCount(), compressed.edgesCount());
+        assertArrayEquals(ct.offsets(), compressed.toCompact().offsets());
+        assertArrayEquals(ct.neighbors(), compressed.toCompact().neighbors());
+        assertTrue(compressed.bytesUsed() < 4L * ct.neighbors().length);
+    }
+
+    @Test
+    public void randomAccessTest() {
+        Topology tp = new Topology();
+        tp.addEdge(-5, 7);
+        tp.addEdge(7, 300);
+        tp.addEdge(7, 1000);
+        CompressedTopology compressed = CompressedTopology.of(tp);
+
+        int seven = compressed.indexOf(7);
+        assertEquals(3, compressed.degree(seven));
+        assertEquals(compressed.indexOf(300), compressed.neighbor(seven, 1));
+        assertTrue(compressed.hasNeighbor(seven, compressed.indexOf(1000)));
+        assertFalse(compressed.hasNeighbor(compressed.indexOf(300), compressed.indexOf(-5)));
+    }
+
+    @Test
+    public void metricsTest() {
+        Topology tp = tg.genWattsStrogatz(500, 3, 0.05f);
+        CompressedTopology compressed = CompressedTopology.of(tp);
+
+        assertEquals(tp.sizeLLC(), compressed.sizeLLC());
+        assertEquals(tp.diameter(), compressed.diameter());
+        assertEquals(tp.avgShortestPathLength(), compressed.avgShortestPathLength(), 0.0001f);
+        assertEquals(tp.connectedComponents(false), compressed.connectedComponents(false));
+    }
+}
@@ -0,0 +1,70 @@
+import org.junit.Test;
+import topology.ChungLu;
+import topology.CompactTopology;
+import topology.ConfigurationModel;
+import topology.EdgeList;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigurationModelTest {
+
+    @Test
+    public void multigraphTest() {
+        int[] degrees = {3, 1, 2, 2, 4, 1, 1, 2};
+        EdgeList edges = new ConfigurationModel(degrees).mode(ConfigurationModel.Mode.MULTIGRAPH).seed(1).edges();
+
+        // every stub is used exactly once
+        int[] counted = new int[degrees.length];
+        for (int i = 0; i < edges.size(); i++) {
+            counted[edges.node1(i)]++;
+            counted[edges.node2(i)]++;
+        }
+        assertEquals(8, edges.size());
+        assertArrayEquals(degrees, counted);
+    }
+
+    @Test
+    public void erasedTest() {
+        int[] degrees = new int[100_000];
+        Arrays.fill(degrees, 4);
+        CompactTopology ct = new ConfigurationModel(degrees).seed(2).toCompact();
+
+        // erased loops and multi-edges are rare in a sparse regular graph
+        assertTrue(ct.edgesCount() <= 200_000);
+        assertTrue(ct.edgesCount() > 199_900);
+        for (int v = 0; v < ct.nodesCount(); v++)
+            assertTrue(ct.degree(v) <= 4);
+    }
+
+    @Test
+    public void chungLuTest() {
+        int[] degrees = new int[50_000];
+        for (int v = 0; v < degrees.length; v++)
+            degrees[v] = v % 100 == 0 ? 50 : 3;
+        CompactTopology ct = new ChungLu(degrees).seed(3).toCompact();
+
+        double expected = Arrays.stream(degrees).asLongStream().sum() / 2.0;
+        assertTrue(Math.abs(ct.edgesCount() - expected) < 5 * Math.sqrt(expected));
+        double hubs = 0;
+        for (int v = 0; v < degrees.length; v += 100)
+            hubs += ct.degree(v);
+        assertEquals(50, hubs / 500, 2);
+    }
+
+    @Test
+    public void uniformTest() {
+        Topology tp = new TopologyGenerator(4).generateUniformGraph(20_000, 5, 15);
+
+        assertEquals(20_000, tp.size());
+        assertEquals(10, tp.averageDegree(), 0.2);
+        assertTrue(tp.values().stream().allMatch(neighs -> neighs.size() <= 15));
+        assertTrue(tp.nodesWithDegree(5) > 1000);
+        assertTrue(tp.nodesWithDegree(15) > 1000);
+    }
+}
@@ -0,0 +1,57 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.CoreDecomposition;
+import topology.IntGraph;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CoreDecompositionTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void coreNumbersTest() {
+        Topology tp = tg.genCompleteGraph(4); // 3-core
+        tp.addEdge(3, 4);
+        tp.addEdge(4, 5);
+        tp.addEdge(5, 3); // 2-core with 3
+        tp.addEdge(5, 6); // 1-core
+        tp.addNode(7);
+
+        Map<Integer, Integer> cores = tp.coreNumbers();
+        assertEquals(Map.of(0, 3, 1, 3, 2, 3, 3, 3, 4, 2, 5, 2, 6, 1, 7, 0), cores);
+        assertEquals(3, tp.degeneracy());
+        assertArrayEquals(new int[] {1, 1, 2, 4}, new CoreDecomposition(tp.freeze()).shellSizes());
+
+        IntGraph core = tp.kCore(2);
+        assertEquals(6, core.nodesCount());
+        assertEquals(9, core.edgesCount());
+        assertEquals(2, core.degree(core.indexOf(4)));
+        assertEquals(-1, core.indexOf(6));
+        assertEquals(1, core.connectedComponents(false).size());
+        assertEquals(2, core.diameter());
+    }
+
+    @Test
+    public void parallelMatchesPeelingTest() {
+        Topology tp = tg.genBarabasiAlbert(2000, 3, 4);
+        tp.merge(tg.genErdosRenyl(1000, 4000));
+        CompactTopology ct = tp.freeze();
+
+        int[] expected = new CoreDecomposition(ct).coreNumbers();
+        assertArrayEquals(expected, new CoreDecomposition(ct).coreNumbers(4));
+
+        // every node of k-core has at least k neighbours inside
+        CoreDecomposition decomposition = new CoreDecomposition(ct);
+        int k = decomposition.degeneracy();
+        IntGraph core = decomposition.core(k);
+        for (int v = 0; v < core.nodesCount(); v++)
+            assertTrue(core.degree(v) >= k);
+    }
+}
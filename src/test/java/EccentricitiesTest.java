@@ -0,0 +1,60 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Eccentricities;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EccentricitiesTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    private int[] bruteForce(CompactTopology ct) {
+        int[] ecc = new int[ct.nodesCount()];
+        for (int v = 0; v < ecc.length; v++)
+            ecc[v] = ct.eccentricity(ct.nodeId(v));
+        return ecc;
+    }
+
+    @Test
+    public void allEccentricitiesTest() {
+        Topology tp = tg.genWattsStrogatz(400, 2, 0.05f);
+        tp.merge(tg.genBarabasiAlbert(300, 1, 2));
+        CompactTopology ct = tp.freeze();
+        int[] expected = bruteForce(ct);
+
+        Eccentricities ecc = new Eccentricities(ct);
+        assertArrayEquals(expected, ecc.eccentricities());
+        assertEquals(Arrays.stream(expected).max().getAsInt(), new Eccentricities(ct).diameter());
+    }
+
+    @Test
+    public void fewerBfsThanNodesTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(3000, 2, 3).freeze();
+        Eccentricities ecc = new Eccentricities(ct);
+        int diameter = ecc.diameter();
+
+        assertEquals(Arrays.stream(bruteForce(ct)).max().getAsInt(), diameter);
+        assertTrue(ecc.bfsCount() < ct.nodesCount() / 3);
+    }
+
+    @Test
+    public void radiusCenterPeripheryTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addEdge(2, 3);
+        tp.addEdge(3, 4);
+
+        assertEquals(4, tp.diameter());
+        assertEquals(2, tp.radius());
+        assertEquals(Set.of(2), tp.center());
+        assertEquals(Set.of(0, 4), tp.periphery());
+    }
+}
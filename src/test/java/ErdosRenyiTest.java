@@ -0,0 +1,56 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.ErdosRenyi;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ErdosRenyiTest {
+
+    @Test
+    public void gnmTest() {
+        CompactTopology sparse = new ErdosRenyi(10_000).seed(1).gnm(30_000).toCompact(10_000);
+        assertEquals(30_000, sparse.edgesCount());
+
+        // above half of pairs the complement is sampled
+        CompactTopology dense = new ErdosRenyi(100).seed(1).gnm(4000).toCompact(100);
+        assertEquals(4000, dense.edgesCount());
+        assertEquals(4950, new ErdosRenyi(100).seed(1).gnm(4950).toCompact(100).edgesCount());
+    }
+
+    @Test
+    public void gnpTest() {
+        CompactTopology ct = new ErdosRenyi(20_000).seed(2).gnp(0.0005).toCompact(20_000);
+        double expected = 0.0005 * 20_000 * 19_999 / 2;
+        assertTrue(Math.abs(ct.edgesCount() - expected) < 5 * Math.sqrt(expected));
+
+        CompactTopology complete = new ErdosRenyi(50).gnp(1).toCompact(50);
+        assertEquals(50 * 49 / 2, complete.edgesCount());
+        assertEquals(0, new ErdosRenyi(50).gnp(0).size());
+    }
+
+    @Test
+    public void parallelismTest() {
+        // several chunks of random streams, result doesn't depend on how they are scheduled
+        CompactTopology gnp1 = new ErdosRenyi(3000).seed(5).parallelism(1).gnp(0.5).toCompact(3000);
+        CompactTopology gnp4 = new ErdosRenyi(3000).seed(5).parallelism(4).gnp(0.5).toCompact(3000);
+        assertArrayEquals(gnp1.neighbors(), gnp4.neighbors());
+
+        CompactTopology gnm1 = new ErdosRenyi(3000).seed(5).parallelism(1).gnm(3_000_000).toCompact(3000);
+        CompactTopology gnm4 = new ErdosRenyi(3000).seed(5).parallelism(4).gnm(3_000_000).toCompact(3000);
+        assertEquals(3_000_000, gnm4.edgesCount());
+        assertArrayEquals(gnm1.neighbors(), gnm4.neighbors());
+    }
+
+    @Test
+    public void generatorTest() {
+        Topology tp1 = new TopologyGenerator(9).genErdosRenyl(500, 0.02f);
+        Topology tp2 = new TopologyGenerator(9).genErdosRenyl(500, 0.02f);
+        assertEquals(tp1, tp2);
+        assertEquals(500, tp1.size());
+        assertEquals(1000, new TopologyGenerator(9).genErdosRenyl(500, 1000).edgesCount());
+    }
+}
@@ -0,0 +1,95 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import topology.CompactTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+import utils.GraphImporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GraphImporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // tiny blocks to cut lines on many block boundaries
+    GraphImporter importer = new GraphImporter(4, 16);
+
+    private Path write(String name, String content) throws IOException {
+        Path path = folder.getRoot().toPath().resolve(name);
+        Files.writeString(path, content);
+        return path;
+    }
+
+    @Test
+    public void edgeListTest() throws IOException {
+        Path path = write("graph.txt", "# comment\n1 2\n2\t1\n2 3 0.5\n\n3 3\n10 1\r\n1 2");
+
+        CompactTopology ct = importer.read(path);
+
+        assertEquals(4, ct.nodesCount());
+        assertEquals(3, ct.edgesCount());
+        assertEquals(2, ct.degree(ct.indexOf(1)));
+        assertEquals(10, ct.nodeId(3));
+    }
+
+    @Test
+    public void largeEdgeListTest() throws IOException {
+        Topology tp = new TopologyGenerator().genErdosRenyl(2000, 10000);
+        for (int v = 0; v < 2000; v++) {
+            if (tp.degree(v) == 0)
+                tp.addEdge(v, (v + 1) % 2000); // isolated nodes are not in an edge list
+        }
+        StringBuilder sb = new StringBuilder();
+        tp.forEach((node, neighs) -> neighs.forEach(neigh -> sb.append(node).append(' ').append(neigh).append('\n')));
+        Path path = folder.getRoot().toPath().resolve("er.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(sb.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+
+        CompactTopology ct = new GraphImporter(4, 1024).read(path);
+        CompactTopology expected = tp.freeze();
+
+        assertEquals(expected.edgesCount(), ct.edgesCount());
+        assertArrayEquals(expected.neighbors(), ct.neighbors());
+    }
+
+    @Test
+    public void metisTest() throws IOException {
+        // blank line before header, triangle 1-2-3, isolated 4, edge weights
+        Path path = write("graph.graph", "\n% comment\n4 3 1\n2 1 3 1\n1 1 3 1\n1 1 2 1\n\n");
+
+        CompactTopology ct = importer.read(path);
+
+        assertEquals(4, ct.nodesCount());
+        assertEquals(3, ct.edgesCount());
+        assertEquals(0, ct.degree(ct.indexOf(4)));
+        assertEquals(1f, ct.avgClusteringCoeff() * 4 / 3, 0.001f);
+    }
+
+    @Test
+    public void pajekTest() throws IOException {
+        Path path = write("graph.net", "*Network test\n*Vertices 5\n1 \"a\"\n2 \"b\"\n*Arcs\n1 2 1.0\n2 1\n*Edges\n2 3\n*Edgeslist\n4 1 3\n");
+
+        CompactTopology ct = importer.read(path);
+
+        assertEquals(5, ct.nodesCount());
+        assertEquals(4, ct.edgesCount());
+        assertEquals(0, ct.degree(ct.indexOf(5)));
+        Topology tp = ct.toTopology();
+        assertTrue(tp.hasEdge(1, 2));
+        assertTrue(tp.hasEdge(2, 3));
+        assertTrue(tp.hasEdge(4, 1));
+        assertTrue(tp.hasEdge(4, 3));
+    }
+}
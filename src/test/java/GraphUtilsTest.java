@@ -1,6 +1,15 @@
 import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import topology.Topology;
+import topology.TopologyGenerator;
 import utils.GraphUtils;
 
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -8,9 +17,26 @@ public class GraphUtilsTest {
 
   private GraphUtils gu;
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Before
   public void setGu(){
     gu = new GraphUtils();
   }
 
+  @Test
+  public void degreeSequenceCsvTest() throws Exception {
+    Topology tp = new TopologyGenerator(1).genBarabasiAlbert(500, 2, 3);
+    File csv = folder.newFile("degrees.csv");
+    gu.graphDegreeStatToCsv(tp, csv.getPath());
+
+    int[] degrees = gu.readDegreeSequence(csv.getPath());
+    assertEquals(500, degrees.length);
+    assertEquals(tp.degreeSum(), Arrays.stream(degrees).sum());
+    for (int i = 1; i < degrees.length; i++)
+      assertTrue(degrees[i - 1] <= degrees[i]);
+
+    assertArrayEquals(new int[] {0, 2, 2, 5}, gu.degreeSequence(new long[] {1, 0, 2, 0, 0, 1}));
+  }
 }
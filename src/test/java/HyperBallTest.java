@@ -0,0 +1,53 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.HyperBall;
+import topology.MultiSourceBfs;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class HyperBallTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void distanceStatisticsTest() {
+        Topology tp = tg.genWattsStrogatz(3000, 3, 0.1f);
+        CompactTopology ct = tp.largestConnectedComponent().freeze();
+        HyperBall hb = new HyperBall(ct).registers(8).parallelism(4);
+
+        double exact = ct.avgShortestPathLength();
+        assertEquals(exact, hb.averageDistance(), exact * 0.1);
+
+        double[] nf = hb.neighbourhoodFunction();
+        long n = ct.nodesCount();
+        assertEquals(n, nf[0], 0);
+        assertEquals((double) n * n, nf[nf.length - 1], n * n * 0.1);
+        assertEquals(ct.diameter(), nf.length - 1, 2);
+
+        double[] harmonic = hb.harmonic();
+        double[] exactHarmonic = new MultiSourceBfs(ct).harmonic();
+        double sum = 0;
+        double exactSum = 0;
+        for (int v = 0; v < n; v++) {
+            sum += harmonic[v];
+            exactSum += exactHarmonic[v];
+        }
+        assertEquals(exactSum, sum, exactSum * 0.1);
+    }
+
+    @Test
+    public void settersResetResultTest() {
+        CompactTopology ct = tg.genWattsStrogatz(500, 3, 0.1f).largestConnectedComponent().freeze();
+        HyperBall hb = new HyperBall(ct).maxIterations(1);
+        assertEquals(2, hb.neighbourhoodFunction().length);
+
+        hb.maxIterations(Integer.MAX_VALUE);
+        assertEquals(ct.diameter(), hb.neighbourhoodFunction().length - 1, 2);
+        double[] before = hb.neighbourhoodFunction();
+        assertNotSame(before, hb.registers(10).neighbourhoodFunction());
+        assertNotSame(hb.neighbourhoodFunction(), hb.seed(1).neighbourhoodFunction());
+    }
+}
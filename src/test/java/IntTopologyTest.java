@@ -0,0 +1,78 @@
+import org.junit.Test;
+import topology.IntTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+import utils.IntHashSet;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntTopologyTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void addRemoveTest() {
+        IntTopology tp = new IntTopology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addEdge(2, 0);
+        tp.addNode(7);
+
+        assertEquals(4, tp.nodesCount());
+        assertEquals(2, tp.degree(0));
+        assertTrue(tp.hasEdge(2, 1));
+
+        tp.removeEdge(1, 2);
+        assertFalse(tp.hasEdge(2, 1));
+        assertEquals(1, tp.degree(1));
+
+        tp.removeNode(0);
+        assertEquals(3, tp.nodesCount());
+        assertFalse(tp.hasNode(0));
+        assertEquals(0, tp.degree(1));
+
+        tp.addEdge(1, 7);
+        assertArrayEquals(new int[]{7}, tp.neighbors(1));
+    }
+
+    @Test
+    public void sameAsTopologyTest() {
+        IntTopology itp = tg.genWattsStrogatz(200, 3, 0.2f, IntTopology::new);
+        Topology tp = itp.toTopology();
+
+        assertArrayEquals(tp.freeze().neighbors(), itp.freeze().neighbors());
+        assertArrayEquals(tp.freeze().offsets(), itp.freeze().offsets());
+    }
+
+    @Test
+    public void erdosRenylTest() {
+        IntTopology tp = tg.genErdosRenyl(100, 300, IntTopology::new);
+
+        assertEquals(100, tp.nodesCount());
+        assertEquals(300, tp.freeze().edgesCount());
+    }
+
+    @Test
+    public void intHashSetTest() {
+        SplittableRandom random = new SplittableRandom(42);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(-500, 500);
+            if (random.nextBoolean())
+                assertEquals(expected.add(key), set.add(key));
+            else
+                assertEquals(expected.remove(key), set.remove(key));
+        }
+
+        assertEquals(expected.size(), set.size());
+        expected.forEach(key -> assertTrue(set.contains(key)));
+    }
+}
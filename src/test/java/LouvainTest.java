@@ -0,0 +1,55 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Louvain;
+import topology.MetaNode;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LouvainTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void cliquesTest() {
+        Topology tp = new Topology();
+        for (int i = 0; i < 8; i++) {
+            tp.merge(tg.genCompleteGraph(6));
+            if (i > 0)
+                tp.addEdge(6 * i - 1, 6 * i);
+        }
+
+        Map<Integer, MetaNode> communities = tp.findCommunities();
+        assertEquals(8, communities.size());
+        for (int i = 0; i < 8; i++) {
+            MetaNode metaNode = communities.get(6 * i);
+            assertEquals(Set.of(6 * i, 6 * i + 1, 6 * i + 2, 6 * i + 3, 6 * i + 4, 6 * i + 5), metaNode.innerNodes());
+            assertEquals(15, metaNode.innerEdgesCount());
+        }
+    }
+
+    @Test
+    public void parallelModularityTest() {
+        Topology tp = new Topology();
+        for (int i = 0; i < 40; i++)
+            tp.merge(tg.genErdosRenyl(100, 0.2f));
+        for (int i = 0; i < 200; i++)
+            tp.addEdge(i * 17 % 4000, (i * 17 + 2500) % 4000);
+        CompactTopology ct = tp.freeze();
+
+        Louvain louvain = new Louvain(ct).parallelism(4);
+        int[] communities = louvain.communities();
+        assertTrue(louvain.modularity() > 0.9);
+        for (int i = 0; i < 40; i++) {
+            // every planted block ends in one community
+            for (int v = 100 * i; v < 100 * i + 100; v++)
+                assertEquals(communities[100 * i], communities[v]);
+        }
+        assertTrue(louvain.levels() >= 1);
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import topology.CompactTopology;
+import topology.MappedTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class MappedTopologyTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void roundTripTest() throws IOException {
+        Topology tp = tg.genWattsStrogatz(300, 2, 0.1f);
+        Path path = folder.newFile("ws.bin").toPath();
+        MappedTopology.write(tp, path);
+
+        MappedTopology mt = MappedTopology.open(path, true);
+        CompactTopology ct = tp.freeze();
+
+        assertEquals(ct.nodesCount(), mt.nodesCount());
+        assertEquals(ct.edgesCount(), mt.edgesCount());
+        assertArrayEquals(ct.neighbors(), mt.toCompact().neighbors());
+        assertEquals(ct.sizeLLC(), mt.sizeLLC());
+        assertEquals(ct.diameter(), mt.diameter());
+    }
+
+    @Test
+    public void sparseIdsTest() throws IOException {
+        Topology tp = new Topology();
+        tp.addEdge(100, 5);
+        tp.addEdge(5, 42);
+        tp.addNode(-3);
+        Path path = folder.newFile("ids.bin").toPath();
+        MappedTopology.write(tp, path);
+
+        MappedTopology mt = MappedTopology.open(path);
+
+        assertEquals(4, mt.nodesCount());
+        assertEquals(2, mt.degree(mt.indexOf(5)));
+        assertEquals(-1, mt.indexOf(6));
+        assertEquals(tp, mt.toCompact().toTopology());
+    }
+
+    @Test
+    public void checksumTest() throws IOException {
+        Path path = folder.newFile("k5.bin").toPath();
+        MappedTopology.write(tg.genCompleteGraph(5), path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write(7);
+        }
+
+        assertThrows(RuntimeException.class, () -> MappedTopology.open(path, true));
+    }
+}
@@ -0,0 +1,62 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Louvain;
+import topology.MetaNode;
+import topology.ModularityTracker;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class ModularityTrackerTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void movesMatchRecalculationTest() {
+        CompactTopology ct = tg.genErdosRenyl(300, 1200).freeze();
+        int n = ct.nodesCount();
+        Random random = new Random(3);
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++)
+            labels[v] = random.nextInt(10);
+        ModularityTracker tracker = new ModularityTracker(ct, labels);
+
+        for (int step = 0; step < 500; step++) {
+            int v = random.nextInt(n);
+            int target = random.nextInt(12);
+            double before = tracker.modularity();
+            double gain = tracker.gain(v, target);
+            tracker.move(v, target);
+            assertEquals(before + gain, tracker.modularity(), 1e-9);
+        }
+        assertEquals(new ModularityTracker(ct, tracker.communities()).modularity(), tracker.modularity(), 1e-12);
+    }
+
+    @Test
+    public void twoCliquesTest() {
+        Topology tp = tg.genCompleteGraph(5);
+        tp.merge(tg.genCompleteGraph(5));
+        tp.addEdge(4, 5);
+        CompactTopology ct = tp.freeze();
+
+        ModularityTracker tracker = new ModularityTracker(ct, new int[] {0, 0, 0, 0, 0, 5, 5, 5, 5, 5});
+        assertEquals(2, tracker.communitiesCount());
+        assertEquals(10, tracker.innerEdges(5));
+        assertEquals(21, tracker.degreeSum(0));
+        // 2*(10/21 - (21/42)^2)
+        assertEquals(20.0 / 21 - 0.5, tracker.modularity(), 1e-9);
+        assertEquals(tracker.modularity(), tp.modularity(tp.findCommunities()), 1e-9);
+        assertEquals(new Louvain(ct).modularity(), tracker.modularity(), 1e-9);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void overlappingCommunitiesTest() {
+        Topology tp = tg.genCompleteGraph(4);
+        tp.modularity(Map.of(0, new MetaNode(Set.of(0, 1, 2), 3), 2, new MetaNode(Set.of(2, 3), 1)));
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.MultiSourceBfs;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MultiSourceBfsTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    private int[] distances(CompactTopology ct, int source) {
+        int[] dist = new int[ct.nodesCount()];
+        Arrays.fill(dist, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        dist[source] = 0;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            for (int i = ct.offsets()[v]; i < ct.offsets()[v + 1]; i++) {
+                int u = ct.neighbors()[i];
+                if (dist[u] < 0) {
+                    dist[u] = dist[v] + 1;
+                    queue.add(u);
+                }
+            }
+        }
+        return dist;
+    }
+
+    @Test
+    public void farnessAndHarmonicTest() {
+        Topology tp = tg.genWattsStrogatz(150, 2, 0.1f);
+        tp.merge(tg.genBarabasiAlbert(130, 1, 2));
+        CompactTopology ct = tp.freeze();
+        int n = ct.nodesCount();
+        long[] farness = new long[n];
+        double[] harmonic = new double[n];
+        for (int v = 0; v < n; v++) {
+            for (int d : distances(ct, v)) {
+                if (d > 0) {
+                    farness[v] += d;
+                    harmonic[v] += 1.0 / d;
+                }
+            }
+        }
+
+        MultiSourceBfs bfs = new MultiSourceBfs(ct, 3);
+        assertArrayEquals(farness, bfs.farness());
+        assertArrayEquals(harmonic, bfs.harmonic(), 1e-9);
+    }
+
+    @Test
+    public void closenessTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addNode(3);
+
+        Map<Integer, Float> closeness = tp.closenessCentrality();
+        assertEquals(2f / 3 * 2 / 3, closeness.get(0), 0.0001f);
+        assertEquals(2f / 2 * 2 / 3, closeness.get(1), 0.0001f);
+        assertEquals(0f, closeness.get(3), 0f);
+        assertEquals(1.5f, tp.harmonicCentrality().get(0), 0.0001f);
+    }
+
+    @Test
+    public void avgShortestPathLengthTest() {
+        Topology tp = tg.genWattsStrogatz(300, 3, 0.2f);
+        CompactTopology ct = tp.largestConnectedComponent().freeze();
+        long sum = 0;
+        for (int v = 0; v < ct.nodesCount(); v++)
+            sum += Arrays.stream(distances(ct, v)).sum();
+
+        long n = ct.nodesCount();
+        assertEquals((float) sum / (n * (n - 1)), ct.avgShortestPathLength(), 0.0001f);
+    }
+}
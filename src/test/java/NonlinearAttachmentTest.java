@@ -0,0 +1,63 @@
+import org.junit.Test;
+import topology.AttachmentKernel;
+import topology.CompactTopology;
+import topology.NonlinearAttachment;
+import topology.Topology;
+import topology.TopologyGenerator;
+import utils.FenwickTree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NonlinearAttachmentTest {
+
+    @Test
+    public void fenwickTest() {
+        FenwickTree tree = new FenwickTree(5);
+        tree.set(0, 1);
+        tree.set(2, 2);
+        tree.set(4, 3);
+        assertEquals(6, tree.total(), 1e-9);
+        assertEquals(3, tree.prefix(3), 1e-9);
+        assertEquals(0, tree.find(0.5));
+        assertEquals(2, tree.find(1.0));
+        assertEquals(2, tree.find(2.9));
+        assertEquals(4, tree.find(3.0));
+        assertEquals(4, tree.find(5.99));
+
+        tree.set(2, 0);
+        assertEquals(4, tree.find(1.0));
+    }
+
+    @Test
+    public void edgesTest() {
+        CompactTopology ct = new NonlinearAttachment(10_000, AttachmentKernel.shifted(1))
+                .edgesPerNode(3).startGraphSize(4).seed(1).toCompact();
+
+        // targets of one node are distinct, so there are exactly m edges per new node
+        assertEquals(6 + 9996 * 3, ct.edgesCount());
+        assertEquals(10_000, ct.sizeLLC());
+    }
+
+    @Test
+    public void kernelTest() {
+        // superlinear kernel condenses edges on a few hubs, sublinear spreads them
+        int superHub = new NonlinearAttachment(20_000, AttachmentKernel.power(1.5)).seed(2).toCompact()
+                .summary().maxDegree();
+        int linearHub = new NonlinearAttachment(20_000, AttachmentKernel.power(1)).seed(2).toCompact()
+                .summary().maxDegree();
+        int subHub = new NonlinearAttachment(20_000, AttachmentKernel.power(0.5)).seed(2).toCompact()
+                .summary().maxDegree();
+
+        assertTrue(superHub > linearHub);
+        assertTrue(linearHub > subHub);
+    }
+
+    @Test
+    public void squareTest() {
+        Topology tp = new TopologyGenerator(3).generatePowerLawSquareTopology(5000, 5);
+
+        assertEquals(10 + 4995 * 2, tp.edgesCount()); // m0 = 1 gives two draws
+        assertEquals(tp, new TopologyGenerator(3).generatePowerLawSquareTopology(5000, 5));
+    }
+}
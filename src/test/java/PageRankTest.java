@@ -0,0 +1,73 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.EigenvectorCentrality;
+import topology.PageRank;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PageRankTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void starTest() {
+        Topology tp = new Topology();
+        for (int i = 1; i <= 4; i++)
+            tp.addEdge(0, i);
+        tp.addNode(5);
+
+        Map<Integer, Float> ranks = tp.pageRank();
+        assertEquals(1f, ranks.values().stream().reduce(0f, Float::sum), 0.0001f);
+        // center: r0 = b + 0.85*4*r1, leaf: r1 = b + 0.85*r0/4, b = 0.15/6 + 0.85*r5/6, r5 = b
+        double r5 = 0.15 / 6 / (1 - 0.85 / 6);
+        double r0 = (r5 + 0.85 * 4 * r5) / (1 - 0.85 * 0.85);
+        assertEquals(r0, ranks.get(0), 0.0001f);
+        assertEquals(r5, ranks.get(5), 0.0001f);
+
+        tp.removeNode(5);
+        Map<Integer, Float> eigen = tp.eigenvectorCentrality();
+        assertEquals(Math.sqrt(0.5), eigen.get(0), 0.0001f);
+        assertEquals(Math.sqrt(0.125), eigen.get(3), 0.0001f);
+    }
+
+    @Test
+    public void parallelAndWarmStartTest() {
+        Topology tp = tg.genBarabasiAlbert(3000, 3, 4);
+        CompactTopology ct = tp.freeze();
+
+        PageRank sequential = new PageRank(ct).parallelism(1);
+        double[] expected = sequential.run();
+        double[] ranks = new PageRank(ct).parallelism(4).run();
+        assertArrayEquals(expected, ranks, 1e-12);
+        assertEquals(1.0, Arrays.stream(ranks).sum(), 1e-9);
+
+        PageRank warm = new PageRank(ct).start(ranks);
+        assertArrayEquals(expected, warm.run(), 1e-9);
+        assertTrue(warm.iterations() < sequential.iterations());
+
+        double[] eigen = new EigenvectorCentrality(ct).parallelism(4).run();
+        double[] eigenSequential = new EigenvectorCentrality(ct).parallelism(1).run();
+        assertArrayEquals(eigenSequential, eigen, 1e-9);
+        // A x = lambda x for every node
+        double lambda = 0;
+        for (int v = 0; v < ct.nodesCount(); v++) {
+            double sum = 0;
+            for (int i = ct.offsets()[v]; i < ct.offsets()[v + 1]; i++)
+                sum += eigen[ct.neighbors()[i]];
+            lambda += sum * eigen[v];
+        }
+        for (int v = 0; v < ct.nodesCount(); v += 97) {
+            double sum = 0;
+            for (int i = ct.offsets()[v]; i < ct.offsets()[v + 1]; i++)
+                sum += eigen[ct.neighbors()[i]];
+            assertEquals(lambda * eigen[v], sum, 1e-4);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.PathFinder;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PathFinderTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void distanceMatchesBfsTest() {
+        Topology tp = tg.genWattsStrogatz(500, 2, 0.05f);
+        tp.merge(tg.genBarabasiAlbert(200, 1, 2));
+        tp.addNode(1000);
+        CompactTopology ct = tp.freeze();
+        PathFinder finder = new PathFinder(ct);
+        Random random = new Random(7);
+        for (int q = 0; q < 300; q++) {
+            int node1 = ct.nodeId(random.nextInt(ct.nodesCount()));
+            int node2 = ct.nodeId(random.nextInt(ct.nodesCount()));
+            int expected = bfsDistance(tp, node1, node2);
+            int distance = finder.distance(node1, node2);
+            assertEquals(expected, distance);
+
+            int[] path = finder.path(node1, node2);
+            if (distance < 0) {
+                assertEquals(0, path.length);
+                continue;
+            }
+            assertEquals(distance + 1, path.length);
+            assertEquals(node1, path[0]);
+            assertEquals(node2, path[path.length - 1]);
+            for (int i = 1; i < path.length; i++)
+                assertTrue(tp.hasEdge(path[i - 1], path[i]));
+        }
+    }
+
+    @Test
+    public void shortestPathTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addEdge(2, 3);
+        tp.addEdge(0, 4);
+        tp.addEdge(4, 3);
+        tp.addNode(5);
+
+        assertEquals(List.of(0, 4, 3), tp.shortestPath(0, 3));
+        assertEquals(List.of(2), tp.shortestPath(2, 2));
+        assertEquals(List.of(), tp.shortestPath(0, 5));
+        assertEquals(-1, tp.shortestPathLength(0, 5));
+    }
+
+    @Test
+    public void exploresPartOfGraphTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(5000, 3, 4).freeze();
+        PathFinder finder = new PathFinder(ct);
+        long visited = 0;
+        for (int q = 0; q < 50; q++) {
+            finder.distance(q, ct.nodesCount() - 1 - q);
+            visited += finder.visitedCount();
+        }
+        assertTrue(visited / 50 < ct.nodesCount() / 2);
+    }
+
+    private int bfsDistance(Topology tp, int node1, int node2) {
+        Map<Integer, Integer> dist = new HashMap<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        dist.put(node1, 0);
+        queue.add(node1);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            if (v == node2)
+                return dist.get(v);
+            for (int u : tp.get(v)) {
+                if (!dist.containsKey(u)) {
+                    dist.put(u, dist.get(v) + 1);
+                    queue.add(u);
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,60 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.EdgeList;
+import topology.PreferentialAttachment;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PreferentialAttachmentTest {
+
+    @Test
+    public void edgesTest() {
+        PreferentialAttachment pa = new PreferentialAttachment(5000, 3).startGraphSize(5).seed(7);
+        CompactTopology ct = pa.toCompact();
+
+        assertEquals(5000, ct.nodesCount());
+        assertEquals(10 + 4995 * 3, ct.edgesCount());
+        assertEquals(pa.edgesCount(), ct.edgesCount());
+        for (int v = 5; v < ct.nodesCount(); v++)
+            assertTrue(ct.degree(v) >= 3);
+
+        // same lists as the general snapshot builder, which sorts and drops duplicates
+        int[] ends = pa.endpoints();
+        EdgeList edges = new EdgeList();
+        for (int i = 0; i < ends.length; i += 2)
+            edges.add(ends[i], ends[i + 1]);
+        CompactTopology sorted = edges.toCompact(5000);
+        assertArrayEquals(sorted.offsets(), ct.offsets());
+        assertArrayEquals(sorted.neighbors(), ct.neighbors());
+    }
+
+    @Test
+    public void smallStartTest() {
+        CompactTopology ct = new PreferentialAttachment(100, 4).startGraphSize(1).seed(1).toCompact();
+
+        assertEquals(0 + 1 + 2 + 3 + 4 + 95 * 4, ct.edgesCount());
+        assertEquals(100, ct.sizeLLC());
+    }
+
+    @Test
+    public void seedTest() {
+        Topology tp1 = new TopologyGenerator(42).genBarabasiAlbert(1000, 2, 3);
+        Topology tp2 = new TopologyGenerator(42).genBarabasiAlbert(1000, 2, 3);
+
+        assertEquals(tp1, tp2);
+        assertEquals(3 + 997 * 2, tp1.edgesCount());
+        assertArrayEquals(tp1.freeze().neighbors(),
+                new TopologyGenerator(42).genBarabasiAlbertCompact(1000, 2, 3).neighbors());
+    }
+
+    @Test
+    public void hubsTest() {
+        CompactTopology ct = new PreferentialAttachment(100_000, 2).seed(3).toCompact();
+        // preferential attachment grows hubs far above the mean degree of 4
+        assertTrue(ct.summary().maxDegree() > 100);
+    }
+}
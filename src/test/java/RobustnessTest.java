@@ -0,0 +1,78 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Robustness;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RobustnessTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void nodeRemovalMatchesSizeLLCTest() {
+        Topology tp = tg.genBarabasiAlbert(300, 2, 3);
+        tp.merge(tg.genErdosRenyl(250, 200));
+        CompactTopology ct = tp.freeze();
+
+        for (Robustness.Order order : Robustness.Order.values()) {
+            Robustness robustness = new Robustness(ct).seed(order.ordinal());
+            int[] removal = robustness.order(order);
+            int[] curve = robustness.nodeRemoval(removal);
+            assertEquals(ct.nodesCount() + 1, curve.length);
+
+            Topology copy = ct.toTopology();
+            for (int k = 0; k < removal.length; k++) {
+                assertEquals(copy.sizeLLC(), curve[k]);
+                int node = ct.nodeId(removal[k]);
+                if (order == Robustness.Order.ADAPTIVE_DEGREE) {
+                    int max = copy.values().stream().mapToInt(Set::size).max().getAsInt();
+                    assertEquals(max, copy.get(node).size());
+                }
+                copy.removeNode(node);
+            }
+            assertEquals(0, curve[removal.length]);
+        }
+    }
+
+    @Test
+    public void degreeOrderTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(0, 2);
+        tp.addEdge(0, 3);
+        tp.addEdge(3, 4);
+        tp.addEdge(4, 5);
+        tp.addEdge(5, 3);
+
+        assertArrayEquals(new int[] {0, 3, 4, 5, 1, 2}, new Robustness(tp.freeze()).order(Robustness.Order.DEGREE));
+        assertArrayEquals(new int[] {6, 3, 3, 1, 1, 1, 0}, tp.robustness(List.of(3, 4, 0, 1, 2, 5)));
+    }
+
+    @Test
+    public void edgeRemovalTest() {
+        Topology tp = tg.genWattsStrogatz(60, 2, 0.2f);
+        List<Set<Integer>> edges = new ArrayList<>();
+        tp.forEach((node, neighs) -> neighs.stream().filter(n -> n > node).forEach(n -> edges.add(Set.of(node, n))));
+        Collections.shuffle(edges, new Random(1));
+
+        int[] curve = tp.edgeRobustness(edges);
+        assertEquals(edges.size() + 1, curve.length);
+        Topology copy = tp.freeze().toTopology();
+        for (int k = 0; k < edges.size(); k++) {
+            assertEquals(copy.sizeLLC(), curve[k]);
+            List<Integer> ends = new ArrayList<>(edges.get(k));
+            copy.removeEdge(ends.get(0), ends.get(1));
+        }
+        assertEquals(1, curve[edges.size()]);
+        assertEquals(tp.edgesCount() + 1, tp.edgeRobustness().length);
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.MetaNode;
+import topology.StochasticBlockModel;
+import topology.Topology;
+import topology.TopologyGenerator;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StochasticBlockModelTest {
+
+    @Test
+    public void plantedPartitionTest() {
+        int[] sizes = new int[20];
+        Arrays.fill(sizes, 200);
+        double[][] p = new double[20][20];
+        for (double[] row : p)
+            Arrays.fill(row, 0.001);
+        for (int a = 0; a < 20; a++)
+            p[a][a] = 0.1;
+        StochasticBlockModel sbm = new StochasticBlockModel(sizes, p).seed(1);
+        CompactTopology ct = sbm.toCompact();
+
+        Map<Integer, MetaNode> truth = sbm.communities();
+        assertEquals(20, truth.size());
+        long inner = truth.values().stream().mapToLong(MetaNode::innerEdgesCount).sum();
+        double expectedInner = 20 * 0.1 * 200 * 199 / 2;
+        double expectedOuter = 0.001 * 200 * 200 * 190;
+        assertTrue(Math.abs(inner - expectedInner) < 5 * Math.sqrt(expectedInner));
+        assertTrue(Math.abs(ct.edgesCount() - inner - expectedOuter) < 5 * Math.sqrt(expectedOuter));
+        assertEquals(200, truth.get(0).innerNodes().size());
+
+        Topology tp = sbm.topology();
+        assertTrue(tp.modularity(truth) > 0.7);
+        assertTrue(tp.modularity(tp.findCommunities()) > 0.7);
+    }
+
+    @Test
+    public void parallelismTest() {
+        // one dense block is cut into several chunks
+        double[][] p = {{0.6, 0.01}, {0.01, 0.3}};
+        int[] sizes = {2500, 1000};
+        CompactTopology ct1 = new StochasticBlockModel(sizes, p).seed(2).parallelism(1).toCompact();
+        CompactTopology ct4 = new StochasticBlockModel(sizes, p).seed(2).parallelism(4).toCompact();
+
+        assertArrayEquals(ct1.neighbors(), ct4.neighbors());
+        double expected = 0.6 * 2500 * 2499 / 2 + 0.01 * 2500 * 1000 + 0.3 * 1000 * 999 / 2;
+        assertTrue(Math.abs(ct1.edgesCount() - expected) < 5 * Math.sqrt(expected));
+    }
+
+    @Test
+    public void degreeCorrectedTest() {
+        int[] sizes = {5000, 5000};
+        double[][] p = {{0.002, 0.0002}, {0.0002, 0.002}};
+        double[] theta = new double[10_000];
+        for (int v = 0; v < theta.length; v++)
+            theta[v] = v % 10 == 0 ? 5.5 : 0.5; // mean 1 in every block
+        StochasticBlockModel sbm = new StochasticBlockModel(sizes, p).degreeCorrected(theta).seed(3);
+        CompactTopology ct = sbm.toCompact();
+
+        double expected = 2 * 0.002 * 5000 * 4999 / 2 + 0.0002 * 5000 * 5000;
+        assertTrue(Math.abs(ct.edgesCount() - expected) < 5 * Math.sqrt(expected));
+        double hubs = 0;
+        double others = 0;
+        for (int v = 0; v < theta.length; v++) {
+            if (v % 10 == 0)
+                hubs += ct.degree(v);
+            else
+                others += ct.degree(v);
+        }
+        // degree follows theta
+        assertEquals(11, (hubs / 1000) / (others / 9000), 1);
+    }
+
+    @Test
+    public void generatorTest() {
+        StochasticBlockModel sbm = new TopologyGenerator(4).genStochasticBlockModel(new int[] {10, 10},
+                new double[][] {{1, 0}, {0, 1}});
+        Topology tp = sbm.topology();
+
+        assertEquals(20, tp.size());
+        assertEquals(90, tp.edgesCount());
+        assertEquals(2, tp.connectedComponents(false).size());
+        assertEquals(2, sbm.communities().size());
+        assertEquals(45, sbm.communities().get(10).innerEdgesCount());
+    }
+}
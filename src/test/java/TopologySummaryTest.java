@@ -0,0 +1,61 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+import topology.TopologySummary;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopologySummaryTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void countsTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(0, 2);
+        tp.addEdge(0, 3);
+        tp.addEdge(2, 3);
+        tp.addNode(4);
+
+        TopologySummary summary = tp.summary();
+        assertEquals(5, summary.nodesCount());
+        assertEquals(4, summary.edgesCount());
+        assertEquals(0.4, summary.density(), 1e-12);
+        assertEquals(0, summary.minDegree());
+        assertEquals(3, summary.maxDegree());
+        assertEquals(1.6, summary.meanDegree(), 1e-12);
+        assertArrayEquals(new long[] {1, 1, 2, 1}, summary.degreeHistogram());
+        assertEquals(2, summary.nodesWithDegree(2));
+        assertEquals((9 + 1 + 4 + 4) / 5.0, summary.degreeMoment(2), 1e-12);
+    }
+
+    @Test
+    public void assortativityTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(2000, 2, 3).freeze();
+
+        // Pearson correlation over both directions of every edge
+        double sx = 0, sxx = 0, sxy = 0, count = 0;
+        for (int v = 0; v < ct.nodesCount(); v++) {
+            for (int i = ct.offsets()[v]; i < ct.offsets()[v + 1]; i++) {
+                double x = ct.degree(v);
+                double y = ct.degree(ct.neighbors()[i]);
+                sx += x;
+                sxx += x * x;
+                sxy += x * y;
+                count++;
+            }
+        }
+        double mean = sx / count;
+        double expected = (sxy / count - mean * mean) / (sxx / count - mean * mean);
+
+        TopologySummary summary = TopologySummary.of(ct, 4);
+        assertEquals(expected, summary.assortativity(), 1e-9);
+        assertTrue(summary.assortativity() < 0);
+        assertEquals(TopologySummary.of(ct, 1).assortativity(), summary.assortativity(), 1e-12);
+        assertEquals(expected, ct.degreeAssort(), 1e-9);
+    }
+}
@@ -1,8 +1,22 @@
+import topology.Betweenness;
+import topology.CompactTopology;
 import topology.Topology;
 import org.junit.Test;
 import topology.TopologyGenerator;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class TopologyTest {
 
@@ -321,4 +335,134 @@ public class TopologyTest {
         var communities = tp.findCommunities();
         assertEquals(2, communities.size());
     }
+
+    @Test
+    public void betweennessCentralityTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addEdge(2, 3);
+
+        var bc = tp.betweennessCentrality();
+        assertEquals(0f, bc.get(0), 0.001f);
+        assertEquals(2f, bc.get(1), 0.001f);
+        assertEquals(2f, bc.get(2), 0.001f);
+
+        // square: each opposite pair has two shortest paths
+        tp.addEdge(3, 0);
+        var square = tp.betweennessCentrality();
+        square.values().forEach(score -> assertEquals(0.5f, score, 0.001f));
+
+        tp.addNode(4);
+        assertEquals(0f, tp.betweennessCentrality().get(4), 0.001f);
+    }
+
+    @Test
+    public void edgeBetweennessCentralityTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addEdge(1, 3);
+
+        var ebc = tp.edgeBetweennessCentrality();
+        assertEquals(3, ebc.size());
+        assertEquals(3f, ebc.get(Set.of(0, 1)), 0.001f);
+        assertEquals(3f, ebc.get(Set.of(1, 3)), 0.001f);
+    }
+
+    @Test
+    public void betweennessParallelTest() {
+        CompactTopology ct = tg.genBarabasiAlbert(500, 2, 3).freeze();
+
+        assertArrayEquals(new Betweenness(ct, 1).nodes(), new Betweenness(ct, 4).nodes(), 0.0001);
+    }
+
+    @Test
+    public void runningCountersTest() {
+        Topology tp = tg.genCompleteGraph(5);
+        assertEquals(10, tp.edgesCount());
+        assertEquals(20, tp.degreeSum());
+
+        Topology other = new Topology();
+        other.addEdge(0, 1);
+        tp.merge(other); // nodes 5, 6
+        tp.addEdge(0, 1); // already present
+        tp.addEdge(7, 0);
+        tp.removeEdge(1, 2);
+        tp.removeNode(3);
+        tp.addNode(8);
+
+        int degreeSum = tp.values().stream().mapToInt(Set::size).sum();
+        assertEquals(degreeSum, tp.degreeSum());
+        assertEquals(degreeSum / 2, tp.edgesCount());
+        assertEquals(3, tp.nodesWithDegree(1));
+        assertEquals(1, tp.nodesWithDegree(0));
+        for (int degree = 0; degree < 6; degree++) {
+            int d = degree;
+            assertEquals(tp.values().stream().filter(neighs -> neighs.size() == d).count(), tp.nodesWithDegree(d));
+        }
+    }
+
+    @Test
+    public void cachedMetricsTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+
+        long version = tp.version();
+        CompactTopology ct = tp.freeze();
+        assertSame(ct, tp.freeze());
+        assertEquals(2, tp.diameter());
+        assertEquals(version, tp.version());
+
+        tp.addEdge(0, 2);
+        assertNotEquals(version, tp.version());
+        assertNotSame(ct, tp.freeze());
+        assertEquals(1, tp.diameter());
+        assertEquals(1.0, tp.transitivity(), 0.0001);
+    }
+
+    @Test
+    public void serializationTest() throws IOException, ClassNotFoundException {
+        Topology tp = tg.genCompleteGraph(4);
+        tp.addEdge(3, 4);
+        assertEquals(2, tp.diameter());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(tp);
+        }
+        Topology copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Topology) in.readObject();
+        }
+
+        assertEquals(tp, copy);
+        assertEquals(2, copy.diameter());
+        assertEquals(7, copy.edgesCount());
+        assertEquals(3, copy.nodesWithDegree(3));
+        copy.addEdge(0, 5);
+        assertEquals(3, copy.diameter());
+    }
+
+    @Test
+    public void cloneTest() {
+        Topology tp = tg.genCompleteGraph(4);
+        tp.removeEdge(1, 2);
+        CompactTopology ct = tp.freeze();
+        assertEquals(2, tp.diameter());
+
+        Topology copy = tp.clone();
+        copy.addEdge(1, 2);
+        copy.removeNode(0);
+
+        assertEquals(5, tp.edgesCount());
+        assertSame(ct, tp.freeze());
+        assertEquals(5, ct.edgesCount());
+        assertEquals(2, tp.diameter());
+        assertEquals(2, tp.nodesWithDegree(3));
+        assertFalse(tp.hasEdge(1, 2));
+        assertEquals(3, copy.edgesCount());
+        assertEquals(1, copy.diameter());
+    }
 }
@@ -0,0 +1,46 @@
+import org.junit.Test;
+import topology.CompactTopology;
+import topology.Topology;
+import topology.TopologyGenerator;
+import topology.Triangles;
+
+import static org.junit.Assert.assertEquals;
+
+public class TrianglesTest {
+
+    TopologyGenerator tg = new TopologyGenerator();
+
+    @Test
+    public void matchesClusteringCoeffTest() {
+        Topology tp = tg.genBarabasiAlbert(2000, 4, 5);
+        tp.merge(tg.genWattsStrogatz(300, 3, 0.1f));
+        CompactTopology ct = tp.freeze();
+        Triangles triangles = new Triangles(ct, 3);
+        double[] clustering = triangles.clustering();
+
+        long sum = 0;
+        for (int v = 0; v < ct.nodesCount(); v++) {
+            assertEquals(tp.clusteringCoeff(ct.nodeId(v)), clustering[v], 0.0001);
+            sum += triangles.triangles()[v];
+        }
+        assertEquals(sum, 3 * triangles.total());
+    }
+
+    @Test
+    public void transitivityTest() {
+        Topology tp = new Topology();
+        tp.addEdge(0, 1);
+        tp.addEdge(1, 2);
+        tp.addEdge(2, 0);
+        tp.addEdge(2, 3);
+
+        Triangles triangles = new Triangles(tp.freeze());
+        assertEquals(1, triangles.total());
+        assertEquals(3.0 / 5, tp.transitivity(), 0.0001);
+        assertEquals(7.0 / 12, triangles.averageClustering(), 0.0001);
+
+        tp = tg.genCompleteGraph(6);
+        assertEquals(20, new Triangles(tp.freeze()).total());
+        assertEquals(1.0, tp.transitivity(), 0.0001);
+    }
+}